@@ -0,0 +1,148 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.bench.BenchCustomerStore;
+import com.bootcamp.customer.bench.Fixtures;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.infrastructure.out.cache.CachingCustomerRepository;
+import com.bootcamp.customer.infrastructure.out.cache.CustomerWeigher;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findById / findByDocumentNumber del servicio con la caché real y un almacén en memoria:
+ * <ul>
+ *   <li>hit: la clave ya está cargada;</li>
+ *   <li>miss: cachés de tamaño 0, cada lectura consulta al almacén;</li>
+ *   <li>coalescedMiss: {@code fanOut} lecturas simultáneas de una clave recién invalidada
+ *       contra un almacén que responde en otro hilo (una sola carga, el resto espera).</li>
+ * </ul>
+ * Las variantes {@code *Contended} repiten el acierto con 8 hilos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CustomerLookupBenchmark {
+
+    @Param({"10000"})
+    int customers;
+
+    @Param({"16"})
+    int fanOut;
+
+    private CustomerServiceImpl cached;
+    private CustomerServiceImpl uncached;
+    private CustomerServiceImpl coalescing;
+    private AsyncCache<String, Customer> coalescingById;
+    private Scheduler storeThreads;
+    private String[] ids;
+    private String[] docs;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+
+        int next(int bound) {
+            int v = i++;
+            if (i == bound) i = 0;
+            return v;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new String[customers];
+        docs = new String[customers];
+        BenchCustomerStore store = new BenchCustomerStore(null);
+        storeThreads = Schedulers.newParallel("bench-store", 4);
+        BenchCustomerStore asyncStore = new BenchCustomerStore(storeThreads);
+        for (int i = 0; i < customers; i++) {
+            Customer c = Fixtures.customer(i);
+            ids[i] = c.getId();
+            docs[i] = c.getDocumentNumber();
+            store.put(c);
+            asyncStore.put(c);
+        }
+
+        cached = service(store, cache(64L << 20), cache(64L << 20));
+        uncached = service(store, cache(0), cache(0));
+        coalescingById = cache(64L << 20);
+        coalescing = service(asyncStore, coalescingById, cache(64L << 20));
+
+        // precarga: todas las claves quedan como acierto
+        Flux.range(0, customers).concatMap(i -> cached.findById(ids[i])).blockLast();
+        Flux.range(0, customers).concatMap(i -> cached.findByDocumentNumber(docs[i])).blockLast();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        storeThreads.dispose();
+    }
+
+    // mismo criterio de CacheConfig (peso estimado + TTL); el executor síncrono hace los
+    // desalojos en el hilo que mide en lugar de en el ForkJoinPool común
+    private static AsyncCache<String, Customer> cache(long maximumBytes) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(CustomerWeigher.INSTANCE)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .executor(Runnable::run)
+                .buildAsync();
+    }
+
+    private static CustomerServiceImpl service(BenchCustomerStore store, AsyncCache<String, Customer> byId,
+                                               AsyncCache<String, Customer> byDoc) {
+        return Fixtures.service(new CachingCustomerRepository(store, byId, byDoc, CachingCustomerRepository.Options.defaults()));
+    }
+
+    @Benchmark
+    public Customer hitById(Cursor cursor) {
+        return cached.findById(ids[cursor.next(customers)]).block();
+    }
+
+    @Benchmark
+    public Customer hitByDocument(Cursor cursor) {
+        return cached.findByDocumentNumber(docs[cursor.next(customers)]).block();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Customer hitByIdContended(Cursor cursor) {
+        return cached.findById(ids[cursor.next(customers)]).block();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Customer hitByDocumentContended(Cursor cursor) {
+        return cached.findByDocumentNumber(docs[cursor.next(customers)]).block();
+    }
+
+    @Benchmark
+    public Customer missById(Cursor cursor) {
+        return uncached.findById(ids[cursor.next(customers)]).block();
+    }
+
+    @Benchmark
+    public Customer missByDocument(Cursor cursor) {
+        return uncached.findByDocumentNumber(docs[cursor.next(customers)]).block();
+    }
+
+    // tiempo por ráfaga de fanOut lecturas; incluye la invalidación que fuerza la carga
+    @Benchmark
+    public Customer coalescedMiss(Cursor cursor) {
+        String id = ids[cursor.next(customers)];
+        coalescingById.synchronous().invalidate(id);
+        return Flux.range(0, fanOut)
+                .flatMap(i -> coalescing.findById(id), fanOut)
+                .blockLast();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.bench.BenchCustomerStore;
+import com.bootcamp.customer.bench.Fixtures;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// helpers de update/create: armar el patch, aplicarlo y limpiar teléfonos y email
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerServiceHelpersBenchmark {
+
+    private CustomerServiceImpl service;
+    private Customer current;
+    private Customer changes;
+    private CustomerPatch patch;
+    private List<String> phones;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.service(new BenchCustomerStore(null));
+        current = Fixtures.customer(1);
+        changes = Customer.builder()
+                .type(CustomerType.ENTERPRISE)
+                .businessName("Empresa Nueva S.A.")
+                .email("  Contacto@Empresa.PE ")
+                .phones(Arrays.asList(" 999 111 222", "", null, "999 111 222", "01-555 0000 "))
+                .build();
+        patch = service.toPatch(changes);
+        phones = changes.getPhones();
+    }
+
+    @Benchmark
+    public CustomerPatch toPatch() {
+        return service.toPatch(changes);
+    }
+
+    // applyTo modifica el cliente: se mide junto con la copia que hace el repositorio con caché
+    @Benchmark
+    public Customer applyPatch() {
+        return patch.applyTo(current.toBuilder().build());
+    }
+
+    @Benchmark
+    public List<String> cleanPhones() {
+        return service.cleanPhones(phones);
+    }
+
+    @Benchmark
+    public String normalizeEmail() {
+        return service.normalizeEmail("  Contacto@Empresa.PE ");
+    }
+}
@@ -0,0 +1,68 @@
+package com.bootcamp.customer.bench;
+
+import com.bootcamp.customer.domain.model.BulkInsertResult;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Almacén en memoria para medir solo servicio + caché. Con {@code scheduler} las respuestas
+ * llegan en otro hilo, como las de Mongo, y las lecturas concurrentes de una clave se solapan.
+ */
+public class BenchCustomerStore implements CustomerRepositoryPort {
+
+    private final Map<String, Customer> byId = new ConcurrentHashMap<>();
+    private final Map<String, Customer> byDoc = new ConcurrentHashMap<>();
+    private final Scheduler scheduler; // null -> respuestas síncronas
+
+    public BenchCustomerStore(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public void put(Customer c) {
+        byId.put(c.getId(), c);
+        byDoc.put(c.getDocumentNumber(), c);
+    }
+
+    private <T> Mono<T> reply(T value) {
+        Mono<T> m = Mono.justOrEmpty(value);
+        return scheduler == null ? m : m.publishOn(scheduler);
+    }
+
+    @Override public Mono<Customer> findById(String id) { return reply(byId.get(id)); }
+    @Override public Mono<Customer> findByDocumentNumber(String doc) { return reply(byDoc.get(doc)); }
+    @Override public Flux<Customer> findAllById(Collection<String> ids) {
+        return Flux.fromIterable(ids).map(byId::get).filter(Objects::nonNull);
+    }
+    @Override public Flux<Customer> findAllByDocumentNumber(Collection<String> docs) {
+        return Flux.fromIterable(docs).map(byDoc::get).filter(Objects::nonNull);
+    }
+    @Override public Flux<Customer> findAll() { return Flux.fromIterable(byId.values()); }
+    @Override public Flux<Customer> findByType(CustomerType type) { return findAll().filter(c -> c.getType() == type); }
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit) { return Flux.empty(); }
+    @Override public Mono<Customer> save(Customer c) { put(c); return Mono.just(c); }
+    @Override public Mono<Customer> insert(Customer c) { put(c); return Mono.just(c); }
+    @Override public Mono<Customer> patch(String id, CustomerPatch patch) { return reply(byId.get(id)); }
+    @Override public Flux<String> findExistingDocumentNumbers(Collection<String> docs) {
+        return Flux.fromIterable(docs).filter(byDoc::containsKey);
+    }
+    @Override public Flux<String> findAllDocumentNumbers() { return Flux.fromIterable(byDoc.keySet()); }
+    @Override public Mono<BulkInsertResult> insertAll(List<Customer> customers) { return Mono.empty(); }
+    @Override public Mono<Void> deleteById(String id) { return Mono.empty(); }
+    @Override public Mono<Customer> findAndDeleteById(String id) { return Mono.empty(); }
+    @Override public Flux<Customer> findByEmail(String email, String afterId, int limit) { return Flux.empty(); }
+    @Override public Flux<Customer> findByPhone(String phone, String afterId, int limit) { return Flux.empty(); }
+    @Override public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit) { return Flux.empty(); }
+    @Override public Mono<Map<CustomerShape, Long>> countByShape() { return Mono.just(Map.of()); }
+}
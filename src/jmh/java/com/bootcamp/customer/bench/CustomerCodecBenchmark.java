@@ -0,0 +1,76 @@
+package com.bootcamp.customer.bench;
+
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+// listado de CustomerDto en JSON vs CBOR vs Smile: codificar, decodificar y tamaño (el tamaño,
+// con y sin gzip, se imprime en el setup: JMH solo mide tiempos)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerCodecBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"50", "1000"})
+    int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<CustomerDto> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, CustomerDto.class);
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+        page = IntStream.range(0, size).mapToObj(i -> CustomerMapper.toDto(Fixtures.customer(i))).toList();
+        encoded = writer.writeValueAsBytes(page);
+        System.out.printf("%n[%s x %d] %d bytes, %d con gzip%n", format, size, encoded.length, gzipped(encoded));
+    }
+
+    private static int gzipped(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<CustomerDto> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
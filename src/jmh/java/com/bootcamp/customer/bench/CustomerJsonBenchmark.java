@@ -0,0 +1,86 @@
+package com.bootcamp.customer.bench;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.infrastructure.in.web.cache.CustomerResponseCache;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Jackson con la misma configuración base que arma Spring Boot; page = respuesta de un listado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerJsonBenchmark {
+
+    @Param({"50"})
+    int pageSize;
+
+    private ObjectWriter dtoWriter;
+    private ObjectReader dtoReader;
+    private ObjectWriter pageWriter;
+    private CustomerDto dto;
+    private byte[] json;
+    private List<CustomerDto> page;
+    private Customer hot;
+    private CustomerResponseCache uncached;
+    private CustomerResponseCache cached;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        dtoWriter = mapper.writerFor(CustomerDto.class);
+        dtoReader = mapper.readerFor(CustomerDto.class);
+        pageWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, CustomerDto.class));
+        dto = CustomerMapper.toDto(Fixtures.customer(3));
+        json = dtoWriter.writeValueAsBytes(dto);
+        page = IntStream.range(0, pageSize).mapToObj(i -> CustomerMapper.toDto(Fixtures.customer(i))).toList();
+        hot = Fixtures.customer(3);
+        uncached = new CustomerResponseCache(mapper, null);
+        cached = new CustomerResponseCache(mapper, Caffeine.newBuilder().weakKeys().maximumSize(1_000).build());
+    }
+
+    // GET /customers/{id} con acierto en la caché de dominio: mapeo + Jackson vs bytes ya codificados
+    @Benchmark
+    public byte[] responseUncached() {
+        return uncached.json(hot);
+    }
+
+    @Benchmark
+    public byte[] responseCached() {
+        return cached.json(hot);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return dtoWriter.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public CustomerDto deserialize() throws IOException {
+        return dtoReader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] serializeContended() throws IOException {
+        return dtoWriter.writeValueAsBytes(dto);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bootcamp.customer.bench;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+import com.bootcamp.customer.infrastructure.out.persistence.mapper.CustomerDocumentMapper;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+// conversiones por cliente: web (DTO), dominio <-> CustomerDocument y CustomerDocument <-> BSON
+// (lo que hace el adaptador en cada lectura y en insertAll)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    private Customer customer;
+    private CustomerDto dto;
+    private CustomerDocument document;
+    private Document bson;
+    private MappingMongoConverter converter;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.afterPropertiesSet();
+
+        customer = Fixtures.customer(7);
+        dto = CustomerMapper.toDto(customer);
+        document = CustomerDocumentMapper.toDoc(customer);
+        bson = new Document();
+        converter.write(document, bson);
+    }
+
+    @Benchmark
+    public CustomerDto toDto() {
+        return CustomerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer dtoToDomain() {
+        return CustomerMapper.toDomain(dto);
+    }
+
+    @Benchmark
+    public CustomerDocument toDocument() {
+        return CustomerDocumentMapper.toDoc(customer);
+    }
+
+    @Benchmark
+    public Customer documentToDomain() {
+        return CustomerDocumentMapper.toDomain(document);
+    }
+
+    @Benchmark
+    public Document writeBson() {
+        Document out = new Document();
+        converter.write(CustomerDocumentMapper.toDoc(customer), out);
+        return out;
+    }
+
+    @Benchmark
+    public Customer readBson() {
+        return CustomerDocumentMapper.toDomain(converter.read(CustomerDocument.class, bson));
+    }
+}
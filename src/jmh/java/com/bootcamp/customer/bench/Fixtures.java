@@ -0,0 +1,45 @@
+package com.bootcamp.customer.bench;
+
+import com.bootcamp.customer.application.CustomerServiceImpl;
+import com.bootcamp.customer.application.CustomerStatsCounter;
+import com.bootcamp.customer.config.CacheConfig;
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+
+import java.util.List;
+
+// datos de prueba deterministas: mismas entradas en todas las corridas
+public final class Fixtures {
+
+    private Fixtures() { }
+
+    public static String id(int i) {
+        return String.format("%024x", i);   // mismo largo que un ObjectId
+    }
+
+    public static String doc(int i) {
+        return String.format("%08d", i);
+    }
+
+    // el servicio con las mismas dependencias que el bean (configuración por defecto)
+    public static CustomerServiceImpl service(CustomerRepositoryPort repo) {
+        CustomerProperties props = new CustomerProperties();
+        return new CustomerServiceImpl(repo, new CacheConfig().idempotencyCache(props), props, new CustomerStatsCounter());
+    }
+
+    public static Customer customer(int i) {
+        boolean personal = i % 2 == 0;
+        return Customer.builder()
+                .id(id(i))
+                .type(personal ? CustomerType.PERSONAL : CustomerType.ENTERPRISE)
+                .documentNumber(doc(i))
+                .fullName(personal ? "Cliente Número " + i : null)
+                .businessName(personal ? null : "Empresa " + i + " S.A.C.")
+                .email("cliente" + i + "@correo.com")
+                .phones(List.of("+51 999 " + (100_000 + i), "01-" + (200_000 + i)))
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Junta los findById que fallan en caché al mismo tiempo (estilo DataLoader):
+ * espera como máximo {@code window} o hasta {@code maxBatchSize} ids distintos
+ * y los resuelve con un solo findAllById. Cada Mono recibe su propio resultado.
+ */
+@Slf4j
+public class CustomerBatchLoader {
+
+    private final CustomerRepositoryPort repo;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private final DistributionSummary batchSize;
+    private final Timer waitTime;
+
+    private final Object lock = new Object();
+    private Map<String, Pending> pending = new HashMap<>(); // protegido por lock
+    private Disposable flushTask;                            // protegido por lock
+
+    public CustomerBatchLoader(CustomerRepositoryPort repo, Duration window, int maxBatchSize,
+                               Scheduler scheduler, MeterRegistry registry) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize debe ser >= 1");
+        this.repo = repo;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.batchSize = DistributionSummary.builder("customer.batch.loader.size")
+                .description("ids por consulta findAllById")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.waitTime = Timer.builder("customer.batch.loader.wait")
+                .description("tiempo que un id espera en la ventana antes de despacharse")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public Mono<Customer> load(String id) {
+        // suppressCancel: que un suscriptor cancele no debe cancelar el lote compartido
+        return Mono.defer(() -> Mono.fromFuture(enqueue(id), true));
+    }
+
+    private CompletableFuture<Customer> enqueue(String id) {
+        Map<String, Pending> full = null;
+        CompletableFuture<Customer> future;
+        synchronized (lock) {
+            Pending p = pending.computeIfAbsent(id, k -> new Pending(System.nanoTime()));
+            future = p.future;
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flushWindow, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) dispatch(full);
+        return future;
+    }
+
+    private void flushWindow() {
+        Map<String, Pending> batch;
+        synchronized (lock) {
+            flushTask = null;
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        if (!batch.isEmpty()) dispatch(batch);
+    }
+
+    private Map<String, Pending> drain() {
+        Map<String, Pending> batch = pending;
+        pending = new HashMap<>();
+        if (flushTask != null) {
+            flushTask.dispose();
+            flushTask = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<String, Pending> batch) {
+        long now = System.nanoTime();
+        batch.values().forEach(p -> waitTime.record(now - p.enqueuedAt, TimeUnit.NANOSECONDS));
+        batchSize.record(batch.size());
+
+        repo.findAllById(batch.keySet()).subscribe(
+                c -> {
+                    Pending p = batch.get(c.getId());
+                    if (p != null) p.future.complete(c);
+                },
+                err -> {
+                    log.warn("findAllById de {} ids falló: {}", batch.size(), err.toString());
+                    batch.values().forEach(p -> p.future.completeExceptionally(err));
+                },
+                // los que no llegaron no existen -> null = Mono vacío
+                () -> batch.values().forEach(p -> p.future.complete(null)));
+    }
+
+    private static final class Pending {
+        final long enqueuedAt;
+        final CompletableFuture<Customer> future = new CompletableFuture<>();
+
+        Pending(long enqueuedAt) { this.enqueuedAt = enqueuedAt; }
+    }
+}
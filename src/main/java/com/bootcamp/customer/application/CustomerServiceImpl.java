@@ -1,94 +1,143 @@
 package com.bootcamp.customer.application;
 
 import com.bootcamp.customer.config.CacheConfig;
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.BulkInsertResult;
 import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerImportResult;
+import com.bootcamp.customer.domain.model.CustomerImportRow;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerSearch;
+import com.bootcamp.customer.domain.model.CustomerStats;
 import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.model.SearchKeys;
 import com.bootcamp.customer.domain.port.in.CustomerUseCase;
 import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
 
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import lombok.RequiredArgsConstructor;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import static java.util.Objects.nonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class CustomerServiceImpl implements CustomerUseCase {
 
-    private final CustomerRepositoryPort repo;
-    private final Cache<String, Customer> customerByIdCache;
-    private final Cache<String, Customer> customerByDocCache;
-    private final Cache<String, Mono<Customer>> byIdMonoCache;
+    static final int MAX_BATCH_SIZE = 500;
+
+    private final CustomerRepositoryPort repo; // decorado con las cachés (ver RepositoryConfig)
+    private final AsyncCache<String, Customer> idempotencyCache;
+    private final CustomerProperties props;
+    private final CustomerStatsCounter stats;
 
-    //inyecto dependencias desde CacheConfig
     public CustomerServiceImpl(
             CustomerRepositoryPort repo,
-            @Qualifier(CacheConfig.BY_ID)
-            Cache<String, Customer> customerByIdCache,
-            @Qualifier(CacheConfig.BY_DOC)
-            Cache<String, Customer> customerByDocCache,
-            @Qualifier(CacheConfig.BY_ID_MONO)
-            Cache<String, Mono<Customer>> byIdMonoCache
+            @Qualifier(CacheConfig.IDEMPOTENCY)
+            AsyncCache<String, Customer> idempotencyCache,
+            CustomerProperties props,
+            CustomerStatsCounter stats
     ) {
         this.repo = repo;
-        this.customerByIdCache = customerByIdCache;
-        this.customerByDocCache = customerByDocCache;
-        this.byIdMonoCache = byIdMonoCache;
+        this.idempotencyCache = idempotencyCache;
+        this.props = props;
+        this.stats = stats;
     }
     @Override
-    public Flux<Customer> findAll(CustomerType type) {
-        return type == null ? repo.findAll() : repo.findByType(type);
+    public Flux<Customer> findAll(CustomerType type, CustomerFields fields) {
+        return type == null ? repo.findAll(fields) : repo.findByType(type, fields);
     }
-    // En tu servicio
+
     @Override
-    public Mono<Customer> findById(String id) {
-        return Mono.defer(() -> {
-            Customer cached = customerByIdCache.getIfPresent(id);
-            if (cached != null) return Mono.just(cached);
-
-            // coalescing opcional: evita múltiples llamadas concurrentes al backend
-            Mono<Customer> cachedMono = byIdMonoCache.getIfPresent(id);
-            if (cachedMono != null) return cachedMono;
-
-            Mono<Customer> loader = repo.findById(id)
-                    .doOnNext(c -> {
-                        customerByIdCache.put(id, c);
-                        if (nonNull(c.getDocumentNumber())) {
-                            customerByDocCache.put(c.getDocumentNumber(), c);
-                        }
-                    })
-                    .cache(); // comparte el resultado entre suscriptores
+    public Flux<Customer> findPage(CustomerType type, String afterId, Integer limit, CustomerFields fields) {
+        CustomerProperties.Listing cfg = props.getListing();
+        int size = limit == null ? cfg.getDefaultPageSize() : limit;
+        if (size < 1) return Flux.error(new IllegalArgumentException("limit debe ser >= 1"));
+        String after = afterId == null || afterId.isBlank() ? null : afterId.trim();
+        return repo.findPage(type, after, Math.min(size, cfg.getMaxPageSize()), fields);
+    }
 
-            byIdMonoCache.put(id, loader);
-            return loader;
-        });
+    @Override
+    public Mono<Customer> findById(String id, CustomerFields fields) {
+        return repo.findById(id, fields);
     }
 
     @Override
-    public Mono<Customer> findByDocumentNumber(String documentNumber) {
+    public Mono<Customer> findByDocumentNumber(String documentNumber, CustomerFields fields) {
         String key = normalizeDoc(documentNumber);
         if (key == null) return Mono.empty();
+        return repo.findByDocumentNumber(key, fields);
+    }
 
-        Customer cached = customerByDocCache.getIfPresent(key);
-        if (cached != null) return Mono.just(cached);
+    // exactamente un criterio; el texto se normaliza igual que las claves guardadas
+    @Override
+    public Flux<Customer> search(CustomerSearch search, String afterId, Integer limit) {
+        CustomerProperties.Search cfg = props.getSearch();
+        int size = limit == null ? cfg.getDefaultLimit() : limit;
+        if (size < 1) return Flux.error(new IllegalArgumentException("limit debe ser >= 1"));
+        size = Math.min(size, cfg.getMaxLimit());
+        String after = afterId == null || afterId.isBlank() ? null : afterId.trim();
+        String email = SearchKeys.email(search.getEmail());
+        String phone = SearchKeys.phone(search.getPhone());
+        String prefix = SearchKeys.name(search.getNamePrefix());
+        long criteria = Stream.of(email, phone, prefix).filter(Objects::nonNull).count();
+        if (criteria != 1) {
+            return Flux.error(new IllegalArgumentException("indicar uno de email, phone o name"));
+        }
+        if (email != null) return repo.findByEmail(email, after, size);
+        if (phone != null) return repo.findByPhone(phone, after, size);
+        if (prefix.length() < cfg.getMinPrefixLength()) {
+            return Flux.error(new IllegalArgumentException("name debe tener al menos " + cfg.getMinPrefixLength() + " caracteres"));
+        }
+        if (after == null) return repo.findByNamePrefix(prefix, null, null, size);
+        // el orden es por nombre: la clave del cursor sale del cliente con ese id (una lectura por
+        // id, normalmente de la caché). Si ya no coincide (se borró o cambió de nombre) no se
+        // puede saber dónde seguir
+        int pageSize = size;
+        return repo.findById(after)
+                .mapNotNull(cursor -> SearchKeys.nameMatch(cursor, prefix))
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                        "after no corresponde a un resultado de esta búsqueda; volver a empezar sin after")))
+                .flatMapMany(afterKey -> repo.findByNamePrefix(prefix, afterKey, after, pageSize));
+    }
 
-        return repo.findByDocumentNumber(key)
-                .doOnNext(c -> {
-                    customerByDocCache.put(key, c);
-                    if (nonNull(c.getId())) {
-                        customerByIdCache.put(c.getId(), c);
-                        byIdMonoCache.invalidate(c.getId()); // evita stale del cache Mono por id
-                    }
-                });
+    @Override
+    public Flux<Customer> findByIds(Collection<String> ids) {
+        return Flux.defer(() -> repo.findAllById(distinctKeys(ids)));
+    }
+
+    @Override
+    public Flux<Customer> findByDocumentNumbers(Collection<String> documentNumbers) {
+        return Flux.defer(() -> repo.findAllByDocumentNumber(distinctKeys(documentNumbers)));
+    }
+
+    private Set<String> distinctKeys(Collection<String> keys) {
+        Set<String> out = new LinkedHashSet<>();
+        if (keys == null) return out;
+        for (String k : keys) {
+            String key = normalizeDoc(k);
+            if (key != null) out.add(key);
+        }
+        if (out.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("máximo " + MAX_BATCH_SIZE + " claves por lote");
+        }
+        return out;
     }
 
     private String normalizeDoc(String doc) {
@@ -101,89 +150,183 @@ public class CustomerServiceImpl implements CustomerUseCase {
 
     @Override
     public Mono<Customer> create(Customer customer) {
-        String key = normalizeDoc(customer.getDocumentNumber());
+        return create(customer, null);
+    }
+
+    // un solo viaje a Mongo: el índice único de documentNumber decide si ya existe
+    // (sin la consulta previa, que además no evitaba la carrera entre dos creates)
+    @Override
+    public Mono<Customer> create(Customer customer, String idempotencyKey) {
+        normalize(customer);
+        String key = customer.getDocumentNumber();
         if (key == null) return Mono.error(new IllegalArgumentException("documentNumber required"));
 
-        return repo.findByDocumentNumber(key).hasElement() // Mono<Boolean>
-                .flatMap(exists -> exists
-                        ? Mono.error(new IllegalStateException("documentNumber already exists"))
-                        : repo.save(customer)
-                        .doOnNext(saved -> {
-                            if (saved.getId() != null) {
-                                customerByIdCache.put(saved.getId(), saved);
-                                byIdMonoCache.invalidate(saved.getId());
-                            }
-                            if (saved.getDocumentNumber() != null) {
-                                customerByDocCache.put(saved.getDocumentNumber(), saved);
-                            }
-                        })
-                );
+        Mono<Customer> insert = repo.insert(customer)
+                .doOnNext(stats::created)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalStateException("documentNumber already exists"));
+
+        String idemKey = idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey.trim();
+        if (idemKey == null) return insert;
+
+        // reintentos con la misma clave comparten el insert (o su resultado); los errores no se guardan
+        return Mono.defer(() -> Mono.fromFuture(idempotencyCache.get(idemKey, (k, executor) -> insert.toFuture()), true))
+                .flatMap(created -> key.equals(created.getDocumentNumber())
+                        ? Mono.just(created)
+                        : Mono.error(new IllegalStateException("Idempotency-Key ya usada para otro documentNumber")));
     }
 
 
 
 
+    // importación masiva: lotes de batchSize filas, un $in para detectar duplicados y un
+    // insertMany no ordenado por lote; flatMapSequential mantiene el orden de las filas
     @Override
-    public Mono<Customer> update(String id, Customer patch) {
-        return repo.findById(id)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("Customer no existe: " + id)))
+    public Flux<CustomerImportResult> importCustomers(Flux<CustomerImportRow> rows) {
+        CustomerProperties.BulkImport cfg = props.getBulkImport();
+        return rows.buffer(cfg.getBatchSize())
+                .flatMapSequential(this::importBatch, cfg.getConcurrency());
+    }
+
+    private Flux<CustomerImportResult> importBatch(List<CustomerImportRow> batch) {
+        CustomerImportResult[] results = new CustomerImportResult[batch.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            CustomerImportRow row = batch.get(i);
+            Customer c = row.getCustomer();
+            if (c == null) {
+                results[i] = result(row, CustomerImportResult.Status.INVALID, null, row.getError());
+                continue;
+            }
+            normalize(c);
+            if (c.getDocumentNumber() == null || c.getType() == null) {
+                results[i] = result(row, CustomerImportResult.Status.INVALID, c.getDocumentNumber(),
+                        "documentNumber y type son obligatorios");
+            } else if (!seen.add(c.getDocumentNumber())) {
+                results[i] = result(row, CustomerImportResult.Status.DUPLICATE, c.getDocumentNumber(),
+                        "documentNumber repetido en el archivo");
+            } else {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) return Flux.fromArray(results);
+
+        return repo.findExistingDocumentNumbers(seen).collect(Collectors.toSet())
                 .flatMap(existing -> {
-                    String oldDoc = existing.getDocumentNumber();
-                    Customer toSave = applyPatch(existing, patch);
-                    return repo.save(toSave)
-                            .doOnNext(updated -> {
-                                customerByIdCache.put(updated.getId(), updated);
-                                byIdMonoCache.invalidate(updated.getId());
-
-                                String newDoc = updated.getDocumentNumber();
-                                if (oldDoc != null && !oldDoc.equals(newDoc)) {
-                                    customerByDocCache.invalidate(oldDoc);
-                                }
-                                if (newDoc != null) {
-                                    customerByDocCache.put(newDoc, updated);
-                                }
-                            });
+                    List<Integer> toInsert = new ArrayList<>();
+                    for (Integer i : candidates) {
+                        CustomerImportRow row = batch.get(i);
+                        String doc = row.getCustomer().getDocumentNumber();
+                        if (existing.contains(doc)) {
+                            results[i] = result(row, CustomerImportResult.Status.DUPLICATE, doc, "documentNumber already exists");
+                        } else {
+                            toInsert.add(i);
+                        }
+                    }
+                    List<Customer> customers = toInsert.stream().map(i -> batch.get(i).getCustomer()).toList();
+                    return repo.insertAll(customers).doOnNext(r -> collect(r, toInsert, batch, results));
+                })
+                .thenMany(Flux.defer(() -> Flux.fromArray(results)));
+    }
+
+    private void collect(BulkInsertResult r, List<Integer> toInsert, List<CustomerImportRow> batch,
+                         CustomerImportResult[] results) {
+        for (int j = 0; j < toInsert.size(); j++) {
+            int i = toInsert.get(j);
+            CustomerImportRow row = batch.get(i);
+            String doc = row.getCustomer().getDocumentNumber();
+            Customer saved = r.getInserted().get(j);
+            if (saved != null) {
+                stats.created(saved);
+                results[i] = CustomerImportResult.builder().row(row.getRow())
+                        .status(CustomerImportResult.Status.CREATED)
+                        .documentNumber(doc).id(saved.getId()).build();
+            } else if (r.getDuplicated().contains(j)) {
+                results[i] = result(row, CustomerImportResult.Status.DUPLICATE, doc, "documentNumber already exists");
+            } else {
+                results[i] = result(row, CustomerImportResult.Status.FAILED, doc, r.getFailed().get(j));
+            }
+        }
+    }
+
+    private static CustomerImportResult result(CustomerImportRow row, CustomerImportResult.Status status,
+                                               String doc, String message) {
+        return CustomerImportResult.builder()
+                .row(row.getRow()).status(status).documentNumber(doc).message(message).build();
+    }
+
+    // altas (una a una o importadas): se guarda la misma forma que se busca (SearchKeys)
+    private void normalize(Customer c) {
+        c.setId(null);
+        c.setDocumentNumber(normalizeDoc(c.getDocumentNumber()));
+        if (c.getEmail() != null) c.setEmail(normalizeEmail(c.getEmail()));
+        if (c.getPhones() != null) c.setPhones(cleanPhones(c.getPhones()));
+    }
+
+    @Override
+    public Mono<Customer> update(String id, Customer patch, Long expectedVersion) {
+        CustomerPatch changes = toPatch(patch);
+        changes.setExpectedVersion(expectedVersion);   // OptimisticLockingFailureException si ya cambió
+        // un solo findAndModify: no hay lectura previa ni reescritura del documento completo,
+        // y dos patches concurrentes sobre campos distintos ya no se pisan
+        return repo.patch(id, changes)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Customer no existe: " + id)))
+                .map(previous -> {
+                    Customer before = previous.toBuilder().build();   // applyTo modifica la imagen previa
+                    Customer updated = changes.applyTo(previous);
+                    stats.changed(before, updated);
+                    return updated;
                 });
     }
 
-    private Customer applyPatch(Customer base, Customer patch) {
-        if (patch.getFullName() != null) base.setFullName(patch.getFullName());
-        if (patch.getDocumentNumber() != null) base.setDocumentNumber(patch.getDocumentNumber());
-        if (patch.getType() != null) base.setType(patch.getType());
-        if (patch.getEmail() != null) {
-            base.setEmail(normalizeEmail(patch.getEmail()));
+    // solo los campos no nulos del patch; el tipo decide qué nombre aplica
+    // (package-private: los usan los benchmarks de src/jmh)
+    CustomerPatch toPatch(Customer patch) {
+        CustomerPatch p = new CustomerPatch();
+        p.setModifiedAt(Instant.now());
+        if (patch.getFullName() != null) p.getSet().put(CustomerPatch.FULL_NAME, patch.getFullName());
+        String doc = normalizeDoc(patch.getDocumentNumber());
+        if (doc != null) p.getSet().put(CustomerPatch.DOCUMENT_NUMBER, doc);
+        if (patch.getType() != null) {
+            p.getSet().put(CustomerPatch.TYPE, patch.getType());
+            // PERSONAL no lleva razón social y ENTERPRISE no lleva nombre de persona
+            if (patch.getType() == CustomerType.PERSONAL && patch.getBusinessName() == null) {
+                p.getUnset().add(CustomerPatch.BUSINESS_NAME);
+            }
+            if (patch.getType() == CustomerType.ENTERPRISE && patch.getFullName() == null) {
+                p.getUnset().add(CustomerPatch.FULL_NAME);
+            }
         }
-        if (patch.getBusinessName() != null) base.setBusinessName(patch.getBusinessName());
-        if (patch.getPhones() != null) {
-            base.setPhones(cleanPhones(patch.getPhones()));
+        if (patch.getEmail() != null) {
+            String email = normalizeEmail(patch.getEmail());
+            if (email == null) p.getUnset().add(CustomerPatch.EMAIL); else p.getSet().put(CustomerPatch.EMAIL, email);
         }
-        return base;
+        if (patch.getBusinessName() != null) p.getSet().put(CustomerPatch.BUSINESS_NAME, patch.getBusinessName());
+        if (patch.getPhones() != null) p.getSet().put(CustomerPatch.PHONES, cleanPhones(patch.getPhones()));
+        return p;
     }
 
-    private List<String> cleanPhones(List<String> phones) {
+    List<String> cleanPhones(List<String> phones) {
         if (phones == null) return null;
-        return phones.stream()
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .distinct()
-                .toList();
+        List<String> cleaned = SearchKeys.phones(phones);
+        return cleaned == null ? List.of() : cleaned;
     }
 
-    private String normalizeEmail(String email) {
-        String e = email.trim();
-        return e.isEmpty() ? null : e.toLowerCase();
+    String normalizeEmail(String email) {
+        return SearchKeys.email(email);
     }
 
     @Override
     public Mono<Void> delete(String id) {
-        // obtenemos el customer para poder invalidar también por documento
-        return repo.deleteById(id)
-                .doOnSuccess(v -> {
-                    customerByIdCache.invalidate(id);
-                    byIdMonoCache.invalidate(id);
-                    // si conoces el docNumber podrías invalidarlo también
-                })
-                .then();
+        // el repositorio con caché invalida el id y el documento del cliente borrado
+        return repo.findAndDeleteById(id).doOnNext(stats::deleted).then();
+    }
+
+    // O(1): contadores en memoria; hasta la primera reconciliación se agrega en la BD
+    @Override
+    public Mono<CustomerStats> stats() {
+        return stats.isSeeded() ? Mono.fromSupplier(stats::snapshot) : stats.reconcile(Mono.defer(repo::countByShape));
     }
 }
@@ -0,0 +1,133 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerStats;
+import com.bootcamp.customer.domain.model.CustomerType;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conteo de clientes por combinación tipo/email/teléfonos ({@link CustomerShape}), mantenido
+ * en memoria: leerlo es O(1) en vez de recorrer la colección.
+ * <p>
+ * Cuenta = {@code base} (última agregación en la BD) + {@code delta} (escrituras de este nodo
+ * desde entonces). Mientras corre una agregación las escrituras también van a su acumulador en
+ * {@code pending}, que pasa a ser el delta de la base nueva. Una escritura que la agregación ya
+ * incluyó queda contada dos veces, y las de otras réplicas no se ven: el error se corrige en la
+ * siguiente reconciliación ({@link CustomerStatsReconciler}).
+ * <p>
+ * Hay a lo sumo una agregación en curso: quien pide reconciliar mientras tanto (p. ej. todos los
+ * GET /stats antes de la primera) espera esa misma en lugar de lanzar otra.
+ */
+public class CustomerStatsCounter {
+
+    private static final CustomerType[] TYPES = CustomerType.values();
+    private static final int CELLS = (TYPES.length + 1) * 4;   // (tipos + sin tipo) x email x teléfonos
+
+    // base, delta y reconciledAt se publican juntos: un snapshot nunca mezcla la base nueva con
+    // el delta de la anterior
+    private volatile Totals totals = new Totals(new long[CELLS], new AtomicLongArray(CELLS), null);
+    private final List<AtomicLongArray> pending = new CopyOnWriteArrayList<>(); // uno por agregación en curso
+    private final AtomicReference<Mono<CustomerStats>> inFlight = new AtomicReference<>();
+
+    public void created(Customer c) {
+        add(cell(CustomerShape.of(c)), 1);
+    }
+
+    public void deleted(Customer c) {
+        add(cell(CustomerShape.of(c)), -1);
+    }
+
+    public void changed(Customer before, Customer after) {
+        int from = cell(CustomerShape.of(before));
+        int to = cell(CustomerShape.of(after));
+        if (from == to) return;
+        add(from, -1);
+        add(to, 1);
+    }
+
+    private void add(int cell, long n) {
+        totals.delta().addAndGet(cell, n);
+        for (AtomicLongArray p : pending) p.addAndGet(cell, n);
+    }
+
+    public boolean isSeeded() {
+        return totals.reconciledAt() != null;
+    }
+
+    /**
+     * Reemplaza la base por el resultado de {@code aggregation} y devuelve los totales nuevos. Si
+     * ya hay una agregación en curso se devuelve esa y {@code aggregation} no se suscribe.
+     */
+    public Mono<CustomerStats> reconcile(Mono<Map<CustomerShape, Long>> aggregation) {
+        return Mono.defer(() -> {
+            Mono<CustomerStats> current = inFlight.get();
+            if (current != null) return current;
+            AtomicReference<Mono<CustomerStats>> self = new AtomicReference<>();
+            // cache: los que se suman comparten el resultado y un cancel no corta la agregación
+            Mono<CustomerStats> run = aggregate(aggregation)
+                    .doFinally(signal -> inFlight.compareAndSet(self.get(), null))
+                    .cache();
+            self.set(run);
+            return inFlight.compareAndSet(null, run) ? run : reconcile(aggregation);
+        });
+    }
+
+    private Mono<CustomerStats> aggregate(Mono<Map<CustomerShape, Long>> aggregation) {
+        return Mono.defer(() -> {
+            AtomicLongArray during = new AtomicLongArray(CELLS);
+            pending.add(during);
+            return aggregation
+                    .map(counts -> {
+                        long[] fresh = new long[CELLS];
+                        counts.forEach((shape, n) -> fresh[cell(shape)] += n);
+                        totals = new Totals(fresh, during, Instant.now());
+                        return snapshot();
+                    })
+                    .doFinally(signal -> pending.remove(during));
+        });
+    }
+
+    public CustomerStats snapshot() {
+        Totals t = totals;
+        long[] b = t.base();
+        AtomicLongArray d = t.delta();
+        long total = 0, withEmail = 0, withPhones = 0;
+        Map<CustomerType, Long> byType = new EnumMap<>(CustomerType.class);
+        for (CustomerType t : TYPES) byType.put(t, 0L);
+        for (int i = 0; i < CELLS; i++) {
+            long n = b[i] + d.get(i);
+            if (n == 0) continue;
+            total += n;
+            if ((i & 2) != 0) withEmail += n;
+            if ((i & 1) != 0) withPhones += n;
+            int type = i >> 2;
+            if (type < TYPES.length) byType.merge(TYPES[type], n, Long::sum);
+        }
+        return CustomerStats.builder()
+                .total(total)
+                .byType(byType)
+                .withEmail(withEmail)
+                .withoutEmail(total - withEmail)
+                .withPhones(withPhones)
+                .withoutPhones(total - withPhones)
+                .reconciledAt(t.reconciledAt())
+                .build();
+    }
+
+    private record Totals(long[] base, AtomicLongArray delta, Instant reconciledAt) { }
+
+    // tipo en los bits altos (sin tipo = último), email en el bit 1, teléfonos en el bit 0
+    private static int cell(CustomerShape shape) {
+        int type = shape.getType() == null ? TYPES.length : shape.getType().ordinal();
+        return (type << 2) | (shape.isEmail() ? 2 : 0) | (shape.isPhones() ? 1 : 0);
+    }
+}
@@ -0,0 +1,51 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// siembra los contadores al arrancar (en segundo plano) y los contrasta con la BD cada interval
+@Slf4j
+public class CustomerStatsReconciler implements SmartLifecycle {
+
+    private final CustomerStatsCounter counter;
+    private final CustomerRepositoryPort store;
+    private final Duration interval;
+    private volatile Disposable subscription;
+
+    public CustomerStatsReconciler(CustomerStatsCounter counter, CustomerRepositoryPort store, Duration interval) {
+        this.counter = counter;
+        this.store = store;
+        this.interval = interval;
+    }
+
+    @Override
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> counter.reconcile(store.countByShape())
+                        .doOnNext(stats -> log.debug("estadísticas reconciliadas: {}", stats))
+                        .onErrorResume(e -> {
+                            log.warn("no se pudieron reconciliar las estadísticas: {}", e.toString());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable s = subscription;
+        if (s != null) s.dispose();
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
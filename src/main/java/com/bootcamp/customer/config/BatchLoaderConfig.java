@@ -0,0 +1,24 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.application.CustomerBatchLoader;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@ConditionalOnProperty(prefix = "customer.batch-loader", name = "enabled", havingValue = "true")
+public class BatchLoaderConfig {
+
+    @Bean
+    public CustomerBatchLoader customerBatchLoader(@Qualifier(RepositoryConfig.GUARDED) CustomerRepositoryPort repo,
+                                                   CustomerProperties props,
+                                                   MeterRegistry registry) {
+        CustomerProperties.BatchLoader cfg = props.getBatchLoader();
+        return new CustomerBatchLoader(repo, cfg.getWindow(), cfg.getMaxBatchSize(),
+                Schedulers.parallel(), registry);
+    }
+}
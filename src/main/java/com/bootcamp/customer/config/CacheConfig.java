@@ -1,46 +1,116 @@
 package com.bootcamp.customer.config;
 
 import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.infrastructure.in.web.cache.CustomerResponseCache;
+import com.bootcamp.customer.infrastructure.out.cache.CustomerCacheRegistry;
+import com.bootcamp.customer.infrastructure.out.cache.CustomerWeigher;
+import com.bootcamp.customer.infrastructure.out.cache.snapshot.CacheSnapshotLifecycle;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.time.Clock;
 
 @Configuration
 public class CacheConfig {
 
     public static final String BY_ID      = "customer.byId";
     public static final String BY_DOC     = "customer.byDoc";
-    public static final String BY_ID_MONO = "customer.byIdMono"; // para el coalescing
+    public static final String IDEMPOTENCY = "customer.idempotency";
+    public static final String STALE      = "customer.stale";
+    public static final String RESPONSES  = "customer.responses";
 
+    // AsyncCache: los fallos concurrentes de una misma clave comparten el mismo future
+    // (coalescing) y Caffeine elimina solo las entradas que terminan en error o vacías.
+    // El refresco anticipado (refresh-after-write) lo hace CachingCustomerRepository: Caffeine
+    // solo lo ofrece en cachés con loader fijo y aquí la carga depende de la clave consultada
     @Bean(BY_ID)
-    public Cache<String, Customer> customerByIdCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(1_000)
-                .expireAfterWrite(Duration.ofMinutes(10))
-                .recordStats()
-                .build();
+    public AsyncCache<String, Customer> customerByIdCache(CustomerProperties props) {
+        return builder(props.getCache().getById()).buildAsync();
     }
 
     @Bean(BY_DOC)
-    public Cache<String, Customer> customerByDocCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(1_000)
-                .expireAfterWrite(Duration.ofMinutes(10))
-                .recordStats()
-                .build();
+    public AsyncCache<String, Customer> customerByDocCache(CustomerProperties props) {
+        return builder(props.getCache().getByDoc()).buildAsync();
     }
 
-    @Bean(BY_ID_MONO)
-    public Cache<String, Mono<Customer>> byIdMonoCache() {
-        return Caffeine.newBuilder()
-                .maximumSize(1_000)
-                .expireAfterWrite(Duration.ofMinutes(5))
-                .build();
+    // Idempotency-Key -> cliente creado; los reintentos dentro del TTL reciben el mismo resultado
+    @Bean(IDEMPOTENCY)
+    public AsyncCache<String, Customer> idempotencyCache(CustomerProperties props) {
+        return builder(props.getCache().getIdempotency()).buildAsync();
+    }
+
+    // última copia conocida (id y "doc:"+documento); solo se lee cuando Mongo no responde
+    @Bean(STALE)
+    public Cache<String, Customer> staleCustomerCache(CustomerProperties props) {
+        return builder(props.getCache().getStale()).build();
+    }
+
+    // JSON codificado por instancia de Customer (ver CustomerResponseCache): claves débiles, la
+    // entrada vive mientras la caché de dominio conserve el objeto. Peso = bytes del JSON + nodo
+    @Bean(RESPONSES)
+    public Cache<Customer, byte[]> customerResponseCache(CustomerProperties props) {
+        CustomerProperties.CacheSpec spec = props.getCache().getResponses();
+        Caffeine<Customer, byte[]> builder = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(spec.getMaximumWeight().toBytes())
+                .weigher((Customer customer, byte[] json) -> RESPONSE_ENTRY_OVERHEAD + json.length)
+                .expireAfterWrite(spec.getExpireAfterWrite());
+        return (spec.isRecordStats() ? builder.recordStats() : builder).build();
+    }
+
+    @Bean
+    public CustomerResponseCache customerResponses(ObjectMapper mapper, CustomerProperties props,
+                                                   @Qualifier(RESPONSES) Cache<Customer, byte[]> encoded) {
+        return new CustomerResponseCache(mapper, props.getCache().getResponses().isEnabled() ? encoded : null);
     }
-}
 
+    // precarga by-id/by-doc al arrancar y las guarda periódicamente y al apagar. Requiere
+    // invalidación por change stream: es lo que corrige lo escrito mientras el nodo estaba caído;
+    // con el bus en memoria lo precargado quedaría viejo hasta que expire
+    @Bean
+    @ConditionalOnProperty(prefix = "customer.cache.snapshot", name = "enabled", havingValue = "true")
+    public CacheSnapshotLifecycle cacheSnapshotLifecycle(@Qualifier(BY_ID) AsyncCache<String, Customer> byId,
+                                                         @Qualifier(BY_DOC) AsyncCache<String, Customer> byDoc,
+                                                         CustomerProperties props) {
+        String mode = props.getCache().getInvalidation().getMode();
+        if (!MissingDocumentConfig.REQUIRED_MODE.equals(mode)) {
+            throw new IllegalStateException("customer.cache.snapshot.enabled=true requiere customer.cache.invalidation.mode="
+                    + MissingDocumentConfig.REQUIRED_MODE + " (actual: " + mode + ")");
+        }
+        CustomerProperties.Snapshot cfg = props.getCache().getSnapshot();
+        return new CacheSnapshotLifecycle(byId, byDoc, cfg.getPath(), cfg.getInterval(), cfg.getMaxAge(),
+                cfg.getMaxEntries(), Clock.systemUTC());
+    }
+
+    // nombres tal como aparecen en customer.cache.* y en /actuator/customercaches
+    @Bean
+    public CustomerCacheRegistry customerCacheRegistry(
+            @Qualifier(BY_ID) AsyncCache<String, Customer> byId,
+            @Qualifier(BY_DOC) AsyncCache<String, Customer> byDoc,
+            @Qualifier(IDEMPOTENCY) AsyncCache<String, Customer> idempotency,
+            @Qualifier(STALE) Cache<String, Customer> stale,
+            @Qualifier(RESPONSES) Cache<Customer, byte[]> responses) {
+        return new CustomerCacheRegistry()
+                .register("by-id", byId.synchronous())
+                .register("by-doc", byDoc.synchronous())
+                .register("idempotency", idempotency.synchronous())
+                .register("stale", stale)
+                .register("responses", responses);
+    }
+
+    private static final int RESPONSE_ENTRY_OVERHEAD = 128;   // nodo + WeakReference de la clave + byte[]
+
+    private static Caffeine<String, Customer> builder(CustomerProperties.CacheSpec spec) {
+        Caffeine<String, Customer> builder = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaximumWeight().toBytes())
+                .weigher(CustomerWeigher.INSTANCE)
+                .expireAfterWrite(spec.getExpireAfterWrite());
+        return spec.isRecordStats() ? builder.recordStats() : builder;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.infrastructure.out.cache.CachingCustomerRepository;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CacheInvalidationListener;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidationBus;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.InMemoryInvalidationBus;
+import com.bootcamp.customer.infrastructure.out.persistence.changestream.MongoChangeStreamInvalidationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+@Configuration
+public class CacheInvalidationConfig {
+
+    // change streams requieren replica set; por eso es opt-in
+    @Bean
+    @ConditionalOnProperty(prefix = "customer.cache.invalidation", name = "mode", havingValue = "change-stream")
+    public CustomerInvalidationBus changeStreamInvalidationBus(ReactiveMongoTemplate template, CustomerProperties props) {
+        CustomerProperties.Invalidation cfg = props.getCache().getInvalidation();
+        return new MongoChangeStreamInvalidationBus(template, cfg.getNodeId(), cfg.getTokenSaveInterval());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CustomerInvalidationBus.class)
+    public CustomerInvalidationBus inMemoryInvalidationBus(CustomerProperties props) {
+        return new InMemoryInvalidationBus(props.getCache().getInvalidation().getNodeId());
+    }
+
+    @Bean
+    public CacheInvalidationListener cacheInvalidationListener(CustomerInvalidationBus bus,
+                                                               CachingCustomerRepository cache,
+                                                               MeterRegistry registry) {
+        return new CacheInvalidationListener(bus, cache, registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.infrastructure.out.cache.CustomerCacheRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// tras un /actuator/refresh (CustomerProperties ya re-enlazado) aplica customer.cache.* a las
+// cachés existentes sin recrearlas: se conservan las entradas y las estadísticas.
+// refreshAfterWrite no hace falta: CachingCustomerRepository lo lee de CustomerProperties en cada acierto
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheSpecRefresher {
+
+    private final CustomerCacheRegistry registry;
+    private final CustomerProperties props;
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void apply() {
+        CustomerProperties.CacheProps cfg = props.getCache();
+        Map.of("by-id", cfg.getById(), "by-doc", cfg.getByDoc(),
+                        "idempotency", cfg.getIdempotency(), "stale", cfg.getStale(),
+                        "responses", cfg.getResponses())
+                .forEach((name, spec) -> registry.resize(name,
+                        spec.getMaximumWeight().toBytes(), spec.getExpireAfterWrite()));
+        log.info("tamaños de caché aplicados: {}", registry.reports().values());
+    }
+}
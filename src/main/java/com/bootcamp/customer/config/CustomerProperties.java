@@ -0,0 +1,168 @@
+package com.bootcamp.customer.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+// propiedades "customer.*" (se pueden sobreescribir desde el config-server)
+@Data
+@ConfigurationProperties(prefix = "customer")
+public class CustomerProperties {
+
+    private BatchLoader batchLoader = new BatchLoader();
+    private Listing listing = new Listing();
+    private Search search = new Search();
+    private Stats stats = new Stats();
+    private BulkImport bulkImport = new BulkImport();
+    private CacheProps cache = new CacheProps();
+    private Resilience resilience = new Resilience();
+    private InMemory inMemory = new InMemory();
+
+    @Data
+    public static class BatchLoader {
+        private boolean enabled = false;
+        private Duration window = Duration.ofMillis(2);   // cuánto se espera para juntar fallos
+        private int maxBatchSize = 100;                   // se despacha antes si se llena
+    }
+
+    @Data
+    public static class Listing {
+        private int defaultPageSize = 50;
+        private int maxPageSize = 1_000;
+        private int cursorBatchSize = 256;                // documentos por getMore del cursor Mongo
+    }
+
+    @Data
+    public static class Search {
+        private int defaultLimit = 20;
+        private int maxLimit = 100;
+        private int minPrefixLength = 2;                  // prefijos más cortos recorren demasiado índice
+        private boolean backfillOnStartup = false;        // completa fullNameKey/businessNameKey de documentos viejos
+    }
+
+    @Data
+    public static class Stats {
+        private boolean reconcile = true;
+        private Duration reconcileInterval = Duration.ofMinutes(5);  // una agregación sobre la colección
+    }
+
+    @Data
+    public static class BulkImport {
+        private int batchSize = 1_000;                    // filas por $in + insertMany
+        private int concurrency = 4;                      // lotes en vuelo a la vez
+    }
+
+    @Data
+    public static class CacheProps {
+        private CacheSpec byId = new CacheSpec(DataSize.ofMegabytes(32), Duration.ofMinutes(10));
+        private CacheSpec byDoc = new CacheSpec(DataSize.ofMegabytes(16), Duration.ofMinutes(10));
+        // expireAfterWrite = ventana en la que un reintento con el mismo Idempotency-Key recibe el mismo resultado
+        private CacheSpec idempotency = new CacheSpec(DataSize.ofMegabytes(8), Duration.ofMinutes(10));
+        // última copia conocida; solo se lee con el breaker abierto
+        private CacheSpec stale = new CacheSpec(DataSize.ofMegabytes(32), Duration.ofHours(1));
+        private Duration refreshAfterWrite = Duration.ofMinutes(8);  // byId/byDoc: recarga en 2º plano; 0 -> nunca
+        private ResponseCacheSpec responses = new ResponseCacheSpec();
+        private Invalidation invalidation = new Invalidation();
+        private Negative negative = new Negative();
+        private Snapshot snapshot = new Snapshot();
+    }
+
+    // tamaño por memoria estimada (ver CustomerWeigher), no por cantidad de entradas
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+        private DataSize maximumWeight;
+        private Duration expireAfterWrite;
+        private boolean recordStats = true;
+
+        public CacheSpec(DataSize maximumWeight, Duration expireAfterWrite) {
+            this(maximumWeight, expireAfterWrite, true);
+        }
+    }
+
+    // JSON ya codificado de GET /customers/{id} y /customers/doc/{n}, por instancia cacheada
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @ToString(callSuper = true)
+    public static class ResponseCacheSpec extends CacheSpec {
+        private boolean enabled = false;
+
+        public ResponseCacheSpec() {
+            super(DataSize.ofMegabytes(16), Duration.ofMinutes(10));
+        }
+    }
+
+    @Data
+    public static class Negative {
+        private boolean enabled = false;
+        private Duration ttl = Duration.ofSeconds(30);               // documentos recién vistos como inexistentes
+        private long maximumSize = 100_000;
+        private long expectedInsertions = 1_000_000;                 // tamaño inicial del filtro de Bloom
+        private double falsePositiveRate = 0.01;
+        private Duration rebuildInterval = Duration.ofHours(1);
+    }
+
+    // by-id/by-doc guardadas en disco para arrancar con la caché caliente
+    @Data
+    public static class Snapshot {
+        private boolean enabled = false;
+        private Path path = Path.of("data", "customer-cache.snapshot");
+        private Duration interval = Duration.ofMinutes(1);
+        private Duration maxAge = Duration.ofMinutes(5);   // más viejo se descarta (arranque en frío)
+        private int maxEntries = 50_000;                    // por caché, las más usadas
+    }
+
+    @Data
+    public static class Invalidation {
+        private String mode = "in-memory";                // in-memory | change-stream
+        private String nodeId = defaultNodeId();          // identifica el resume token de esta réplica
+        private Duration tokenSaveInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Resilience {
+        private Duration readTimeout = Duration.ofMillis(500);
+        private Duration writeTimeout = Duration.ofSeconds(2);
+        private Duration bulkTimeout = Duration.ofSeconds(30);      // insertMany / $in de importación
+        private Duration scanIdleTimeout = Duration.ofSeconds(5);   // entre documentos de un listado
+        private int maxConcurrentCalls = 64;                        // lecturas/escrituras puntuales
+        private int maxConcurrentBulkCalls = 8;                     // listados e importaciones
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDurationThreshold = Duration.ofMillis(300);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+        private int bulkSlidingWindowSize = 10;                     // breaker propio de las masivas
+        private int bulkMinimumNumberOfCalls = 5;
+    }
+
+    // solo perfil inmemory (pruebas de carga sin Mongo)
+    @Data
+    public static class InMemory {
+        private Duration latency = Duration.ZERO;         // por operación
+        private Duration jitter = Duration.ZERO;          // se suma uniforme entre 0 y jitter
+        private double errorRate = 0;                     // fracción de operaciones que fallan
+        private int seedCustomers = 0;                    // clientes deterministas cargados al arrancar
+    }
+
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
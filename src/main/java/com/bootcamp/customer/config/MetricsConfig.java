@@ -0,0 +1,49 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.application.CustomerServiceImpl;
+import com.bootcamp.customer.infrastructure.metrics.MeteredCustomerUseCase;
+import com.bootcamp.customer.infrastructure.metrics.MicrometerCacheLookupRecorder;
+import com.bootcamp.customer.infrastructure.metrics.RequestMetricsFilter;
+import com.bootcamp.customer.infrastructure.out.cache.CacheLookupRecorder;
+import com.bootcamp.customer.infrastructure.out.cache.CustomerCacheRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// métricas propias; se publican por /actuator/metrics y /actuator/prometheus
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @Primary
+    public MeteredCustomerUseCase meteredCustomerUseCase(CustomerServiceImpl service, MeterRegistry registry) {
+        return new MeteredCustomerUseCase(service, registry);
+    }
+
+    @Bean
+    public CacheLookupRecorder cacheLookupRecorder(MeterRegistry registry) {
+        return new MicrometerCacheLookupRecorder(registry);
+    }
+
+    @Bean
+    public RequestMetricsFilter requestMetricsFilter(MeterRegistry registry) {
+        return new RequestMetricsFilter(registry);
+    }
+
+    // cache.gets/puts/evictions/size de Caffeine (de recordStats) + memoria estimada por caché
+    @Bean
+    public MeterBinder customerCacheMetrics(CustomerCacheRegistry caches) {
+        return registry -> caches.caches().forEach((name, cache) -> {
+            CaffeineCacheMetrics.monitor(registry, cache, name);
+            Gauge.builder("customer.cache.estimated.bytes", cache,
+                            c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                    .tag("cache", name)
+                    .baseUnit("bytes")
+                    .register(registry);
+        });
+    }
+}
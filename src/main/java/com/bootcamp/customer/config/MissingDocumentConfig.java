@@ -0,0 +1,38 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.out.cache.negative.DocumentNumberFilterLoader;
+import com.bootcamp.customer.infrastructure.out.cache.negative.MissingDocumentGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// requiere invalidación por change stream: las altas de otras réplicas (o de otro proceso que
+// escriba en Mongo) tienen que llegar al filtro de este nodo. Con el bus en memoria un documento
+// dado de alta en otro lado seguiría respondiendo 404 hasta el próximo rebuild, así que no arranca
+@Configuration
+@ConditionalOnProperty(prefix = "customer.cache.negative", name = "enabled", havingValue = "true")
+public class MissingDocumentConfig {
+
+    static final String REQUIRED_MODE = "change-stream";
+
+    @Bean
+    public MissingDocumentGuard missingDocumentGuard(CustomerProperties props) {
+        String mode = props.getCache().getInvalidation().getMode();
+        if (!REQUIRED_MODE.equals(mode)) {
+            throw new IllegalStateException("customer.cache.negative.enabled=true requiere customer.cache.invalidation.mode="
+                    + REQUIRED_MODE + " (actual: " + mode + ")");
+        }
+        CustomerProperties.Negative cfg = props.getCache().getNegative();
+        return new MissingDocumentGuard(cfg.getTtl(), cfg.getMaximumSize(),
+                cfg.getExpectedInsertions(), cfg.getFalsePositiveRate());
+    }
+
+    @Bean
+    public DocumentNumberFilterLoader documentNumberFilterLoader(MissingDocumentGuard guard,
+                                                                 @Qualifier(RepositoryConfig.GUARDED) CustomerRepositoryPort store,
+                                                                 CustomerProperties props) {
+        return new DocumentNumberFilterLoader(guard, store, props.getCache().getNegative().getRebuildInterval());
+    }
+}
@@ -0,0 +1,44 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.application.CustomerBatchLoader;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.out.cache.CacheLookupRecorder;
+import com.bootcamp.customer.infrastructure.out.cache.CachingCustomerRepository;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidationBus;
+import com.bootcamp.customer.infrastructure.out.cache.negative.MissingDocumentGuard;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// arma la cadena de CustomerRepositoryPort: servicio -> caché -> protección (GUARDED) -> métricas -> almacén (STORE)
+@Configuration
+public class RepositoryConfig {
+
+    public static final String STORE = "customer.store"; // implementación que habla con la BD
+    public static final String GUARDED = "customer.store.guarded"; // STORE con breaker, bulkhead y timeouts
+
+    @Bean
+    @Primary
+    public CachingCustomerRepository customerRepository(
+            @Qualifier(GUARDED) CustomerRepositoryPort store,
+            @Qualifier(CacheConfig.BY_ID) AsyncCache<String, Customer> customerByIdCache,
+            @Qualifier(CacheConfig.BY_DOC) AsyncCache<String, Customer> customerByDocCache,
+            ObjectProvider<CustomerBatchLoader> batchLoader,
+            CustomerInvalidationBus invalidationBus,
+            ObjectProvider<MissingDocumentGuard> missingDocs,
+            ObjectProvider<CacheLookupRecorder> lookupRecorder,
+            CustomerProperties props) {
+        return new CachingCustomerRepository(store, customerByIdCache, customerByDocCache,
+                CachingCustomerRepository.Options.builder()
+                        .batchLoader(batchLoader.getIfAvailable())
+                        .bus(invalidationBus)
+                        .refreshAfterWrite(() -> props.getCache().getRefreshAfterWrite())
+                        .missingDocs(missingDocs.getIfAvailable())
+                        .lookups(lookupRecorder.getIfAvailable())
+                        .build());
+    }
+}
@@ -0,0 +1,88 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.metrics.MeteredCustomerRepository;
+import com.bootcamp.customer.infrastructure.out.resilience.ResilientCustomerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker customerStoreCircuitBreaker(CustomerProperties props) {
+        CustomerProperties.Resilience cfg = props.getResilience();
+        return CircuitBreaker.of("customer-store", CircuitBreakerConfig.custom()
+                .failureRateThreshold(cfg.getFailureRateThreshold())
+                .slowCallRateThreshold(cfg.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(cfg.getSlowCallDurationThreshold())
+                .slidingWindowSize(cfg.getSlidingWindowSize())
+                .minimumNumberOfCalls(cfg.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(cfg.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(cfg.getPermittedCallsInHalfOpenState())
+                // errores de negocio: Mongo respondió bien
+                .ignoreExceptions(DuplicateKeyException.class, OptimisticLockingFailureException.class)
+                .build());
+    }
+
+    // listados, importaciones y agregaciones: solo cuentan los errores. Duran lo que dura el export
+    // (o lo que tarde el cliente en consumirlo), así que una llamada "lenta" no dice nada de Mongo;
+    // las acotadas ya fallan por timeout al pasar bulkTimeout
+    @Bean
+    public CircuitBreaker customerStoreBulkCircuitBreaker(CustomerProperties props) {
+        CustomerProperties.Resilience cfg = props.getResilience();
+        return CircuitBreaker.of("customer-store-bulk", CircuitBreakerConfig.custom()
+                .failureRateThreshold(cfg.getFailureRateThreshold())
+                .slowCallRateThreshold(100)
+                .slowCallDurationThreshold(Duration.ofDays(1))
+                .slidingWindowSize(cfg.getBulkSlidingWindowSize())
+                .minimumNumberOfCalls(cfg.getBulkMinimumNumberOfCalls())
+                .waitDurationInOpenState(cfg.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .ignoreExceptions(DuplicateKeyException.class, OptimisticLockingFailureException.class)
+                .build());
+    }
+
+    @Bean
+    @Qualifier(RepositoryConfig.GUARDED)
+    public ResilientCustomerRepository guardedCustomerStore(@Qualifier(RepositoryConfig.STORE) CustomerRepositoryPort store,
+                                                            CircuitBreaker customerStoreCircuitBreaker,
+                                                            CircuitBreaker customerStoreBulkCircuitBreaker,
+                                                            @Qualifier(CacheConfig.STALE) Cache<String, Customer> stale,
+                                                            CustomerProperties props,
+                                                            MeterRegistry registry) {
+        CustomerProperties.Resilience cfg = props.getResilience();
+        // las métricas van debajo del breaker: miden solo las llamadas que llegan a Mongo
+        return new ResilientCustomerRepository(new MeteredCustomerRepository(store, registry), customerStoreCircuitBreaker,
+                customerStoreBulkCircuitBreaker,
+                bulkhead("customer-store", cfg.getMaxConcurrentCalls()),
+                bulkhead("customer-store-bulk", cfg.getMaxConcurrentBulkCalls()),
+                stale,
+                ResilientCustomerRepository.Timeouts.builder()
+                        .read(cfg.getReadTimeout())
+                        .write(cfg.getWriteTimeout())
+                        .bulk(cfg.getBulkTimeout())
+                        .scanIdle(cfg.getScanIdleTimeout())
+                        .build());
+    }
+
+    // sin espera: con el pool de Mongo saturado es mejor un 503 inmediato que encolar
+    private static Bulkhead bulkhead(String name, int maxConcurrentCalls) {
+        return Bulkhead.of(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+}
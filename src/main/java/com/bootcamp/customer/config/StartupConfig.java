@@ -0,0 +1,29 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.domain.port.in.CustomerUseCase;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.in.web.cache.CustomerResponseCache;
+import com.bootcamp.customer.infrastructure.in.web.controller.CustomerController;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// con el perfil fast-startup (spring.main.lazy-initialization) el resto se crea al primer uso; lo
+// que atiende los GET se crea al arrancar para que el primer pedido no pague la inicialización de
+// controller, servicio, cadena de repositorios (y con ella el cliente de Mongo) ni cachés
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                CustomerController.class,
+                CustomerUseCase.class,
+                CustomerRepositoryPort.class,
+                CustomerResponseCache.class,
+                AsyncCache.class,
+                Cache.class);
+    }
+}
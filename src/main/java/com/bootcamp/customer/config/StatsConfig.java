@@ -0,0 +1,27 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.application.CustomerStatsCounter;
+import com.bootcamp.customer.application.CustomerStatsReconciler;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// los contadores los actualiza CustomerServiceImpl; sin reconciliación se siembran en la primera lectura
+@Configuration
+public class StatsConfig {
+
+    @Bean
+    public CustomerStatsCounter customerStatsCounter() {
+        return new CustomerStatsCounter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "customer.stats", name = "reconcile", havingValue = "true", matchIfMissing = true)
+    public CustomerStatsReconciler customerStatsReconciler(CustomerStatsCounter counter,
+                                                           @Qualifier(RepositoryConfig.GUARDED) CustomerRepositoryPort store,
+                                                           CustomerProperties props) {
+        return new CustomerStatsReconciler(counter, store, props.getStats().getReconcileInterval());
+    }
+}
@@ -0,0 +1,36 @@
+package com.bootcamp.customer.config;
+
+import com.bootcamp.customer.infrastructure.in.web.codec.BinaryMediaTypes;
+import com.bootcamp.customer.infrastructure.in.web.codec.StreamingArrayEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+// CBOR y Smile además de JSON; los mappers salen del builder de Spring Boot (mismos módulos y
+// opciones que el JSON). JSON sigue primero: sin Accept explícito se responde JSON
+@Configuration
+public class WebCodecsConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public WebCodecsConfig(Jackson2ObjectMapperBuilder builder) {
+        this.cborMapper = builder.factory(new CBORFactory()).build();
+        this.smileMapper = builder.factory(new SmileFactory()).build();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // reemplaza al de Smile por defecto, que junta todo el Flux antes de escribir
+        configurer.defaultCodecs().jackson2SmileEncoder(StreamingArrayEncoder.smile(smileMapper));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, BinaryMediaTypes.SMILE));
+        configurer.customCodecs().register(StreamingArrayEncoder.cbor(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, BinaryMediaTypes.CBOR));
+    }
+}
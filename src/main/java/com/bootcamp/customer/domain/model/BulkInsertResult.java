@@ -0,0 +1,14 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.Set;
+
+// resultado de un insert masivo no ordenado; las claves son posiciones dentro del lote enviado
+@Data @AllArgsConstructor @NoArgsConstructor
+public class BulkInsertResult {
+    private Map<Integer, Customer> inserted;
+    private Set<Integer> duplicated;      // violaron el índice único de documentNumber
+    private Map<Integer, String> failed;  // cualquier otro error de escritura
+}
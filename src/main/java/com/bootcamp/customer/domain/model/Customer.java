@@ -1,5 +1,6 @@
 package com.bootcamp.customer.domain.model;
 
+import java.time.Instant;
 import java.util.List;
 import lombok.*;
 
@@ -12,6 +13,8 @@ public class Customer {
     private String businessName;   // si ENTERPRISE
     private String email;
     private List<String> phones;
+    private Long version;          // se incrementa en cada escritura
+    private Instant lastModified;  // instante de la última escritura
 
 
 }
@@ -0,0 +1,55 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Campos pedidos de un Customer ({@code fields=id,type,documentNumber}). Los nombres son los de
+ * {@link Customer}, los mismos que el DTO y el documento Mongo. {@code id} va siempre: es el
+ * cursor de la paginación y forma parte de la ETag.
+ */
+@EqualsAndHashCode
+@ToString
+public final class CustomerFields {
+
+    public static final String ID = "id";
+    // orden en que se emiten, el mismo de la respuesta completa
+    public static final List<String> KNOWN = List.of(ID, CustomerPatch.TYPE, CustomerPatch.DOCUMENT_NUMBER,
+            CustomerPatch.FULL_NAME, CustomerPatch.BUSINESS_NAME, CustomerPatch.EMAIL, CustomerPatch.PHONES);
+
+    private final Set<String> names;
+
+    private CustomerFields(Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    /** {@code null} si no se pidió nada (documento completo); IllegalArgumentException si hay un campo desconocido. */
+    public static CustomerFields parse(String csv) {
+        if (csv == null || csv.isBlank()) return null;
+        Set<String> requested = new LinkedHashSet<>();
+        for (String f : csv.split(",")) {
+            String name = f.trim();
+            if (name.isEmpty()) continue;
+            if (!KNOWN.contains(name)) throw new IllegalArgumentException("campo desconocido: " + name);
+            requested.add(name);
+        }
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String name : KNOWN) {
+            if (name.equals(ID) || requested.contains(name)) ordered.add(name);
+        }
+        return new CustomerFields(ordered);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+}
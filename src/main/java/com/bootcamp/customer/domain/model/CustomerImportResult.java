@@ -0,0 +1,14 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.*;
+
+@Data @Builder @AllArgsConstructor @NoArgsConstructor
+public class CustomerImportResult {
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    private long row;
+    private Status status;
+    private String documentNumber;
+    private String id;       // solo si CREATED
+    private String message;  // motivo si no se creó
+}
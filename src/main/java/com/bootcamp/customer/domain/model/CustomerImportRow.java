@@ -0,0 +1,11 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.*;
+
+// fila de una importación masiva: el cliente ya parseado o el motivo por el que no se pudo
+@Data @AllArgsConstructor @NoArgsConstructor
+public class CustomerImportRow {
+    private long row;          // número de línea en el archivo (1 = primera fila de datos)
+    private Customer customer; // null si no se pudo parsear
+    private String error;
+}
@@ -0,0 +1,53 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cambios parciales ya normalizados sobre un Customer: campos a asignar y campos a borrar.
+ * Las claves son los nombres de propiedad de {@link Customer}.
+ */
+@Data @AllArgsConstructor @NoArgsConstructor
+public class CustomerPatch {
+    public static final String TYPE = "type";
+    public static final String DOCUMENT_NUMBER = "documentNumber";
+    public static final String FULL_NAME = "fullName";
+    public static final String BUSINESS_NAME = "businessName";
+    public static final String EMAIL = "email";
+    public static final String PHONES = "phones";
+
+    private Map<String, Object> set = new LinkedHashMap<>();
+    private Set<String> unset = new LinkedHashSet<>();
+    private Long expectedVersion; // null -> sin control de concurrencia optimista
+    private Instant modifiedAt;   // lo fija quien arma el patch: Mongo y applyTo guardan el mismo instante
+
+    public boolean isEmpty() { return set.isEmpty() && unset.isEmpty(); }
+
+    // reproduce en memoria lo que el findAndModify aplicó sobre la imagen previa (incluye $inc version)
+    public Customer applyTo(Customer base) {
+        unset.forEach(field -> assign(base, field, null));
+        set.forEach((field, value) -> assign(base, field, value));
+        base.setVersion(base.getVersion() == null ? 1L : base.getVersion() + 1);
+        if (modifiedAt != null) base.setLastModified(modifiedAt);
+        return base;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assign(Customer c, String field, Object value) {
+        switch (field) {
+            case TYPE -> c.setType((CustomerType) value);
+            case DOCUMENT_NUMBER -> c.setDocumentNumber((String) value);
+            case FULL_NAME -> c.setFullName((String) value);
+            case BUSINESS_NAME -> c.setBusinessName((String) value);
+            case EMAIL -> c.setEmail((String) value);
+            case PHONES -> c.setPhones((List<String>) value);
+            default -> throw new IllegalArgumentException("campo no soportado: " + field);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+// un solo criterio por búsqueda: email exacto, teléfono exacto o prefijo del nombre / razón social
+@Value
+@Builder
+public class CustomerSearch {
+    String email;
+    String phone;
+    String namePrefix;
+}
@@ -0,0 +1,21 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.Value;
+
+/**
+ * Lo que cuentan las estadísticas de un cliente: tipo y si tiene email / teléfonos. Cada
+ * cliente cae en exactamente una combinación, así que altas, cambios y bajas se reflejan
+ * moviendo una unidad entre combinaciones.
+ */
+@Value
+public class CustomerShape {
+    CustomerType type;   // null en documentos sin tipo
+    boolean email;
+    boolean phones;
+
+    public static CustomerShape of(Customer c) {
+        return new CustomerShape(c.getType(),
+                c.getEmail() != null && !c.getEmail().isBlank(),
+                c.getPhones() != null && !c.getPhones().isEmpty());
+    }
+}
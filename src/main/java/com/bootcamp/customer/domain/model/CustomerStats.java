@@ -0,0 +1,19 @@
+package com.bootcamp.customer.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Value
+@Builder
+public class CustomerStats {
+    long total;
+    Map<CustomerType, Long> byType;
+    long withEmail;
+    long withoutEmail;
+    long withPhones;
+    long withoutPhones;
+    Instant reconciledAt;   // última vez que se contrastó con la BD
+}
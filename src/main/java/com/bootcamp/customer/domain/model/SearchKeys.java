@@ -0,0 +1,64 @@
+package com.bootcamp.customer.domain.model;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Forma normalizada de los campos por los que se busca; la misma se guarda (campos *Key del
+ * documento) y se aplica al texto buscado, así la búsqueda es exacta sobre el índice.
+ */
+public final class SearchKeys {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private SearchKeys() { }
+
+    // sin mayúsculas, sin tildes y con espacios simples: "  José  PÉREZ" -> "jose perez"
+    public static String name(String name) {
+        if (name == null) return null;
+        String s = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        s = SPACES.matcher(s.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return s.isEmpty() ? null : s;
+    }
+
+    // como las guarda CustomerServiceImpl (que normaliza con estos mismos métodos)
+    public static String email(String email) {
+        if (email == null) return null;
+        String s = email.trim().toLowerCase(Locale.ROOT);
+        return s.isEmpty() ? null : s;
+    }
+
+    public static String phone(String phone) {
+        if (phone == null) return null;
+        String s = phone.trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    // clave por la que un cliente entra en la búsqueda por prefijo: la menor de sus claves de
+    // nombre que empieza con prefix (fullName si son iguales); null si no coincide
+    public static String nameMatch(Customer c, String prefix) {
+        String full = name(c.getFullName());
+        String business = name(c.getBusinessName());
+        boolean byFull = full != null && full.startsWith(prefix);
+        boolean byBusiness = business != null && business.startsWith(prefix);
+        if (byFull && byBusiness) return full.compareTo(business) <= 0 ? full : business;
+        return byFull ? full : byBusiness ? business : null;
+    }
+
+    // orden de la búsqueda por prefijo (solo para clientes que coinciden): clave y después id
+    public static Comparator<Customer> byNameMatch(String prefix) {
+        return Comparator.comparing((Customer c) -> nameMatch(c, prefix)).thenComparing(Customer::getId);
+    }
+
+    // sin vacíos ni repetidos, en el orden original; null si no queda ninguno
+    public static List<String> phones(List<String> phones) {
+        if (phones == null) return null;
+        List<String> keys = phones.stream().map(SearchKeys::phone).filter(Objects::nonNull).distinct().toList();
+        return keys.isEmpty() ? null : keys;
+    }
+}
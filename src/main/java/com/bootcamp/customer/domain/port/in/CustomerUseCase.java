@@ -4,11 +4,26 @@ import com.bootcamp.customer.domain.model.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface CustomerUseCase {
-    Flux<Customer> findAll(CustomerType type);     // null -> todos
-    Mono<Customer> findById(String id);
-    Mono<Customer> findByDocumentNumber(String documentNumber);
+    // fields: solo esos campos (proyección en Mongo); null -> documento completo
+    Flux<Customer> findAll(CustomerType type, CustomerFields fields);     // type null -> todos
+    Flux<Customer> findPage(CustomerType type, String afterId, Integer limit, CustomerFields fields); // cursor = id del último
+    Mono<Customer> findById(String id, CustomerFields fields);
+    Mono<Customer> findByDocumentNumber(String documentNumber, CustomerFields fields);
+    default Flux<Customer> findAll(CustomerType type) { return findAll(type, null); }
+    default Flux<Customer> findPage(CustomerType type, String afterId, Integer limit) { return findPage(type, afterId, limit, null); }
+    default Mono<Customer> findById(String id) { return findById(id, null); }
+    default Mono<Customer> findByDocumentNumber(String documentNumber) { return findByDocumentNumber(documentNumber, null); }
+    Flux<Customer> search(CustomerSearch search, String afterId, Integer limit); // por índice, cursor = id del último
+    Flux<Customer> findByIds(Collection<String> ids);                       // omite los que no existen
+    Flux<Customer> findByDocumentNumbers(Collection<String> documentNumbers);
     Mono<Customer> create(Customer customer);
-    Mono<Customer> update(String id, Customer customer);
+    Mono<Customer> create(Customer customer, String idempotencyKey); // misma clave -> mismo resultado
+    Flux<CustomerImportResult> importCustomers(Flux<CustomerImportRow> rows); // un resultado por fila, en orden
+    Mono<Customer> update(String id, Customer customer, Long expectedVersion); // null -> sin control de versión
+    default Mono<Customer> update(String id, Customer customer) { return update(id, customer, null); }
     Mono<Void> delete(String id);
+    Mono<CustomerStats> stats();   // contadores en memoria, reconciliados cada tanto con la BD
 }
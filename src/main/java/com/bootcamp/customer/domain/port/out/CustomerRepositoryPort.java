@@ -4,11 +4,47 @@ import com.bootcamp.customer.domain.model.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface CustomerRepositoryPort {
     Flux<Customer> findAll();
     Flux<Customer> findByType(CustomerType type);
+    Flux<Customer> findPage(CustomerType type, String afterId, int limit); // keyset por _id, type opcional
     Mono<Customer> findById(String id);
     Mono<Customer> findByDocumentNumber(String doc);
+    Flux<Customer> findAllById(Collection<String> ids);              // una sola consulta $in
+    Flux<Customer> findAllByDocumentNumber(Collection<String> docs); // una sola consulta $in
     Mono<Customer> save(Customer customer);
+    Mono<Customer> insert(Customer customer); // falla con DuplicateKeyException si documentNumber ya existe
+    // findAndModify atómico ($set/$unset + $inc version); devuelve el documento ANTERIOR al cambio,
+    // vacío si no existe, OptimisticLockingFailureException si no coincide expectedVersion
+    Mono<Customer> patch(String id, CustomerPatch patch);
+    Flux<String> findExistingDocumentNumbers(Collection<String> docs); // proyección, una consulta $in
+    Flux<String> findAllDocumentNumbers();                              // proyección de toda la colección
+    Mono<BulkInsertResult> insertAll(List<Customer> customers);         // insertMany no ordenado
     Mono<Void> deleteById(String id);
-}
\ No newline at end of file
+    Mono<Customer> findAndDeleteById(String id); // devuelve el documento borrado (vacío si no existía)
+
+    // proyección: basta con traer los campos pedidos (fields null -> documento completo). Por
+    // defecto se devuelve el documento completo, que también sirve: la capa web recorta
+    default Flux<Customer> findAll(CustomerFields fields) { return findAll(); }
+    default Flux<Customer> findByType(CustomerType type, CustomerFields fields) { return findByType(type); }
+    default Flux<Customer> findPage(CustomerType type, String afterId, int limit, CustomerFields fields) {
+        return findPage(type, afterId, limit);
+    }
+    default Mono<Customer> findById(String id, CustomerFields fields) { return findById(id); }
+    default Mono<Customer> findByDocumentNumber(String doc, CustomerFields fields) { return findByDocumentNumber(doc); }
+
+    // búsquedas keyset con valores ya normalizados (SearchKeys); cada almacén las resuelve con su
+    // índice, no hay recorrido de la colección por defecto. Por email y teléfono, paginadas por _id
+    Flux<Customer> findByEmail(String email, String afterId, int limit);
+    Flux<Customer> findByPhone(String phone, String afterId, int limit);
+    // por prefijo de fullName o businessName, en orden SearchKeys.byNameMatch: el cursor es la
+    // clave de nombre (SearchKeys.nameMatch) y el id del último cliente de la página anterior
+    Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit);
+
+    // clientes por combinación de tipo / email / teléfonos (una agregación; ver CustomerStatsCounter)
+    Mono<Map<CustomerShape, Long>> countByShape();
+}
@@ -0,0 +1,48 @@
+package com.bootcamp.customer.infrastructure.in.actuator;
+
+import com.bootcamp.customer.infrastructure.out.cache.CustomerCacheRegistry;
+import com.bootcamp.customer.infrastructure.out.cache.CustomerCacheRegistry.CacheReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * GET  /actuator/customercaches          -> tamaño, memoria estimada, aciertos y desalojos de cada caché
+ * GET  /actuator/customercaches/{cache}  -> lo mismo para una
+ * POST /actuator/customercaches/{cache}  {"maximumWeight":"64MB","expireAfterWrite":"15m"} -> cambia en caliente
+ * <p>
+ * Un cambio hecho aquí dura hasta el próximo refresh del config-server o reinicio.
+ */
+@Component
+@Endpoint(id = "customercaches")
+@RequiredArgsConstructor
+public class CustomerCachesEndpoint {
+
+    private final CustomerCacheRegistry registry;
+
+    @ReadOperation
+    public Map<String, CacheReport> caches() {
+        return registry.reports();
+    }
+
+    @ReadOperation
+    public CacheReport cache(@Selector String cache) {
+        return registry.report(cache).orElse(null); // null -> 404
+    }
+
+    @WriteOperation
+    public CacheReport resize(@Selector String cache,
+                              @Nullable DataSize maximumWeight,
+                              @Nullable Duration expireAfterWrite) {
+        return registry.resize(cache, maximumWeight == null ? null : maximumWeight.toBytes(), expireAfterWrite)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.bootcamp.customer.infrastructure.in.web.cache;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.io.UncheckedIOException;
+
+/**
+ * JSON de un cliente ya codificado, para responder los GET puntuales sin mapear a
+ * {@code CustomerDto} ni pasar por Jackson en cada pedido.
+ * <p>
+ * La clave es la instancia de {@link Customer} que entregan las cachés de dominio (claves
+ * débiles, comparadas por identidad): mientras by-id/by-doc devuelvan el mismo objeto se
+ * reutilizan los mismos bytes, y cuando lo reemplazan o lo invalidan (escritura local,
+ * invalidación remota, recarga) el objeto viejo deja de ser alcanzable y su entrada desaparece
+ * con él. No hace falta invalidar nada aquí; las instancias cacheadas no se modifican.
+ * Sin {@code encoded} (desactivada) se codifica en cada llamada.
+ */
+public class CustomerResponseCache {
+
+    private final ObjectMapper mapper;
+    private final Cache<Customer, byte[]> encoded;
+
+    public CustomerResponseCache(ObjectMapper mapper, Cache<Customer, byte[]> encoded) {
+        this.mapper = mapper;
+        this.encoded = encoded;
+    }
+
+    public byte[] json(Customer customer) {
+        return encoded == null ? encode(customer) : encoded.get(customer, this::encode);
+    }
+
+    private byte[] encode(Customer customer) {
+        try {
+            return mapper.writeValueAsBytes(CustomerMapper.toDto(customer));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
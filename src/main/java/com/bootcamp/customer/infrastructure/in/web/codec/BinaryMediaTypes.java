@@ -0,0 +1,37 @@
+package com.bootcamp.customer.infrastructure.in.web.codec;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+// formatos binarios para clientes internos; los externos siguen recibiendo JSON
+public final class BinaryMediaTypes {
+
+    public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    private BinaryMediaTypes() { }
+
+    /**
+     * CBOR o Smile si el Accept los prefiere a JSON (mayor q; a igual q, el que va primero);
+     * null si no. Los comodines no cuentan: con {@code *}{@code /*} se responde JSON.
+     */
+    public static MediaType preferred(List<MediaType> accept) {
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType type : accept) {
+            double quality = type.getQualityValue();
+            if (quality <= bestQuality || type.isWildcardType() || type.isWildcardSubtype()) continue;
+            MediaType candidate = CBOR.equalsTypeAndSubtype(type) ? CBOR
+                    : SMILE.equalsTypeAndSubtype(type) ? SMILE
+                    : type.isCompatibleWith(MediaType.APPLICATION_JSON) ? MediaType.APPLICATION_JSON
+                    : null;
+            if (candidate == null) continue;
+            best = candidate;
+            bestQuality = quality;
+        }
+        return MediaType.APPLICATION_JSON.equals(best) ? null : best;
+    }
+}
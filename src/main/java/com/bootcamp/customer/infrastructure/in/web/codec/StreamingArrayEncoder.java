@@ -0,0 +1,99 @@
+package com.bootcamp.customer.infrastructure.in.web.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoder CBOR / Smile que emite un Flux como un único arreglo, elemento por elemento, sin
+ * juntarlo antes en una lista (el de CBOR de Spring no admite Flux y el de Smile lo acumula).
+ * <p>
+ * CBOR: arreglo de largo indefinido ({@code 0x9F} ... {@code 0xFF}), cada elemento es un ítem
+ * CBOR completo. Smile: cabecera sin referencias compartidas + {@code START_ARRAY} ... {@code
+ * END_ARRAY}; los elementos se codifican sin cabecera ni referencias, porque cada uno se
+ * escribe por separado. Un Mono se codifica como siempre.
+ */
+public class StreamingArrayEncoder implements Encoder<Object> {
+
+    private static final byte[] CBOR_START = {(byte) 0x9F};
+    private static final byte[] CBOR_END = {(byte) 0xFF};
+    // ":)\n" + versión 0 sin flags (ni nombres ni valores compartidos, ni binario crudo) + START_ARRAY
+    private static final byte[] SMILE_START = {':', ')', '\n', 0x00, (byte) 0xF8};
+    private static final byte[] SMILE_END = {(byte) 0xF9};
+
+    private final MimeType mediaType;
+    private final AbstractJackson2Encoder single;    // valores sueltos
+    private final AbstractJackson2Encoder element;   // elementos dentro del arreglo
+    private final byte[] start;
+    private final byte[] end;
+
+    private StreamingArrayEncoder(MimeType mediaType, AbstractJackson2Encoder single, AbstractJackson2Encoder element,
+                                  byte[] start, byte[] end) {
+        this.mediaType = mediaType;
+        this.single = single;
+        this.element = element;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static StreamingArrayEncoder cbor(ObjectMapper cborMapper) {
+        Jackson2CborEncoder encoder = new Jackson2CborEncoder(cborMapper, BinaryMediaTypes.CBOR);
+        return new StreamingArrayEncoder(BinaryMediaTypes.CBOR, encoder, encoder, CBOR_START, CBOR_END);
+    }
+
+    public static StreamingArrayEncoder smile(ObjectMapper smileMapper) {
+        ObjectMapper bare = smileMapper.copyWith(SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+        return new StreamingArrayEncoder(BinaryMediaTypes.SMILE,
+                new Jackson2SmileEncoder(smileMapper, BinaryMediaTypes.SMILE),
+                new Jackson2SmileEncoder(bare, BinaryMediaTypes.SMILE),
+                SMILE_START, SMILE_END);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return (mimeType == null || mediaType.isCompatibleWith(mimeType)) && single.canEncode(elementType, mediaType);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return List.of(mediaType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory factory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (input instanceof Mono<?> mono) {
+            return mono.map(value -> single.encodeValue(value, factory, elementType, mimeType, hints)).flux();
+        }
+        // la apertura sale con el primer elemento: si el Flux falla de entrada todavía se puede responder el error
+        return Flux.from(input)
+                .map(value -> element.encodeValue(value, factory, elementType, mimeType, hints))
+                .switchOnFirst((first, items) -> first.isOnError() ? items
+                        : Flux.concat(Mono.fromSupplier(() -> factory.wrap(start)), items,
+                                Mono.fromSupplier(() -> factory.wrap(end))));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory factory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return single.encodeValue(value, factory, valueType, mimeType, hints);
+    }
+}
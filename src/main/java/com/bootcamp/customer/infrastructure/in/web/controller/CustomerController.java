@@ -1,18 +1,43 @@
 package com.bootcamp.customer.infrastructure.in.web.controller;
 
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerImportResult;
+import com.bootcamp.customer.domain.model.CustomerSearch;
+import com.bootcamp.customer.domain.model.CustomerStats;
 import com.bootcamp.customer.domain.model.CustomerType;
 import com.bootcamp.customer.domain.port.in.CustomerUseCase;
+import com.bootcamp.customer.infrastructure.in.web.cache.CustomerResponseCache;
+import com.bootcamp.customer.infrastructure.in.web.codec.BinaryMediaTypes;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerBatchRequest;
 import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerETags;
 import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.bootcamp.customer.infrastructure.in.web.parser.CustomerImportParser;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -21,31 +46,169 @@ import reactor.core.publisher.Mono;
 public class CustomerController {
 
     private final CustomerUseCase useCase;
+    private final CustomerImportParser importParser;
+    private final CustomerResponseCache responses;
+
+    private static final CustomerFields ALL_FIELDS = CustomerFields.parse(String.join(",", CustomerFields.KNOWN));
+
+    // con after/limit pagina por id (el cursor de la siguiente página es el id del último elemento);
+    // con Accept: application/x-ndjson se emite un objeto por línea respetando backpressure, y con
+    // application/cbor o application/x-jackson-smile un arreglo binario que también sale en streaming
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            BinaryMediaTypes.CBOR_VALUE, BinaryMediaTypes.SMILE_VALUE})
+    public Flux<CustomerDto> findAll(@RequestParam(required=false) CustomerType type,
+                                     @RequestParam(required=false) String after,
+                                     @RequestParam(required=false) Integer limit){
+        Flux<Customer> customers = after == null && limit == null
+                ? useCase.findAll(type)
+                : useCase.findPage(type, after, limit);
+        return customers.map(CustomerMapper::toDto);
+    }
+
+    // fields=id,type,documentNumber: la proyección llega hasta Mongo y solo se emiten esos campos
+    @GetMapping(params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            BinaryMediaTypes.CBOR_VALUE, BinaryMediaTypes.SMILE_VALUE})
+    public Flux<Map<String, Object>> findAllFields(@RequestParam(required=false) CustomerType type,
+                                                   @RequestParam(required=false) String after,
+                                                   @RequestParam(required=false) Integer limit,
+                                                   @RequestParam String fields){
+        CustomerFields projection = fieldsOrAll(fields);
+        Flux<Customer> customers = after == null && limit == null
+                ? useCase.findAll(type, projection)
+                : useCase.findPage(type, after, limit, projection);
+        return customers.map(c -> CustomerMapper.toFields(c, projection));
+    }
+
+    // GET /customers/search?email=.. | ?phone=.. | ?name=<prefijo> (sin mayúsculas ni tildes). El cursor
+    // after es el id del último resultado; por email/teléfono se ordena por id, por nombre por nombre e id
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            BinaryMediaTypes.CBOR_VALUE, BinaryMediaTypes.SMILE_VALUE})
+    public Flux<CustomerDto> search(@RequestParam(required=false) String email,
+                                    @RequestParam(required=false) String phone,
+                                    @RequestParam(required=false) String name,
+                                    @RequestParam(required=false) String after,
+                                    @RequestParam(required=false) Integer limit){
+        CustomerSearch search = CustomerSearch.builder().email(email).phone(phone).namePrefix(name).build();
+        return useCase.search(search, after, limit).map(CustomerMapper::toDto);
+    }
+
+    // totales por tipo y con/sin email o teléfonos, sin recorrer la colección
+    @GetMapping("/stats")
+    public Mono<CustomerStats> stats(){
+        return useCase.stats();
+    }
+
+    // lecturas calientes: se responden con el JSON ya codificado (ver CustomerResponseCache)
+    // y con ETag/Last-Modified; un If-None-Match vigente recibe 304 sin cuerpo.
+    // Un solo handler por ruta para JSON y binario: con dos, un Accept */* sería ambiguo
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryMediaTypes.CBOR_VALUE,
+            BinaryMediaTypes.SMILE_VALUE})
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = CustomerDto.class)))
+    @ApiResponse(responseCode = "304", description = "If-None-Match coincide con la versión actual")
+    public Mono<ResponseEntity<Object>> findById(@PathVariable String id, ServerWebExchange exchange){
+        return useCase.findById(id).map(c -> encoded(c, exchange));
+    }
+
+    @GetMapping(value = "/doc/{number}", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryMediaTypes.CBOR_VALUE,
+            BinaryMediaTypes.SMILE_VALUE})
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = CustomerDto.class)))
+    @ApiResponse(responseCode = "304", description = "If-None-Match coincide con la versión actual")
+    public Mono<ResponseEntity<Object>> findByDocument(@PathVariable("number") String number, ServerWebExchange exchange) {
+        return useCase.findByDocumentNumber(number).map(c -> encoded(c, exchange));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE,
+            BinaryMediaTypes.CBOR_VALUE, BinaryMediaTypes.SMILE_VALUE})
+    public Mono<ResponseEntity<Map<String, Object>>> findByIdFields(@PathVariable String id, @RequestParam String fields,
+                                                                    ServerWebExchange exchange){
+        CustomerFields projection = fieldsOrAll(fields);
+        return useCase.findById(id, projection).map(c -> conditional(c, exchange, found -> CustomerMapper.toFields(found, projection)));
+    }
+
+    @GetMapping(value = "/doc/{number}", params = "fields", produces = {MediaType.APPLICATION_JSON_VALUE,
+            BinaryMediaTypes.CBOR_VALUE, BinaryMediaTypes.SMILE_VALUE})
+    public Mono<ResponseEntity<Map<String, Object>>> findByDocumentFields(@PathVariable("number") String number,
+                                                                          @RequestParam String fields,
+                                                                          ServerWebExchange exchange) {
+        CustomerFields projection = fieldsOrAll(fields);
+        return useCase.findByDocumentNumber(number, projection)
+                .map(c -> conditional(c, exchange, found -> CustomerMapper.toFields(found, projection)));
+    }
+
+    // JSON: los bytes ya codificados; CBOR/Smile (clientes internos): el DTO, lo codifica el codec.
+    // El tipo va explícito para que el byte[] nunca salga etiquetado como binario
+    private ResponseEntity<Object> encoded(Customer c, ServerWebExchange exchange) {
+        MediaType binary = BinaryMediaTypes.preferred(exchange.getRequest().getHeaders().getAccept());
+        Function<Customer, Object> body = binary == null ? responses::json : CustomerMapper::toDto;
+        return conditional(c, exchange, body, binary == null ? MediaType.APPLICATION_JSON : binary);
+    }
 
-    @GetMapping
-    public Flux<CustomerDto> findAll(@RequestParam(required=false) CustomerType type){
-        return useCase.findAll(type).map(CustomerMapper::toDto);
+    private <T> ResponseEntity<T> conditional(Customer c, ServerWebExchange exchange, Function<Customer, T> body) {
+        return conditional(c, exchange, body, null);
     }
 
-    @GetMapping("/{id}")
-    public Mono<CustomerDto> findById(@PathVariable String id){
-        return useCase.findById(id).map(CustomerMapper::toDto);
+    // la comparación usa la versión del cliente que ya dio la caché: un 304 no cuesta una ida a Mongo
+    // ni la codificación del cuerpo
+    private <T> ResponseEntity<T> conditional(Customer c, ServerWebExchange exchange, Function<Customer, T> body,
+                                              MediaType contentType) {
+        String etag = CustomerETags.of(c);
+        Instant lastModified = c.getLastModified();
+        boolean notModified = lastModified == null
+                ? exchange.checkNotModified(etag)
+                : exchange.checkNotModified(etag, lastModified);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag);
+        if (lastModified != null) response.lastModified(lastModified);
+        if (contentType != null) response.varyBy(HttpHeaders.ACCEPT);
+        if (notModified) return response.build();
+        if (contentType != null) response.contentType(contentType);
+        return response.body(body.apply(c));
     }
 
-    @GetMapping("/doc/{number}")
-    public Mono<CustomerDto> findByDocument(@PathVariable("number") String number) {
-        return useCase.findByDocumentNumber(number).map(CustomerMapper::toDto);
+    // fields= vacío equivale a todos los campos
+    private static CustomerFields fieldsOrAll(String fields) {
+        CustomerFields projection = CustomerFields.parse(fields);
+        return projection == null ? ALL_FIELDS : projection;
+    }
+
+    // una llamada por lote en lugar de N GET /customers/{id}
+    @PostMapping("/batch")
+    public Flux<CustomerDto> findBatch(@Validated @RequestBody CustomerBatchRequest request){
+        List<String> ids = request.getIds() == null ? List.of() : request.getIds();
+        List<String> docs = request.getDocumentNumbers() == null ? List.of() : request.getDocumentNumbers();
+        return useCase.findByIds(ids)
+                .concatWith(useCase.findByDocumentNumbers(docs))
+                .distinct(c -> c.getId() == null ? c.getDocumentNumber() : c.getId())
+                .map(CustomerMapper::toDto);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<CustomerDto> create(@Validated @RequestBody CustomerDto dto){
-        return useCase.create(CustomerMapper.toDomain(dto)).map(CustomerMapper::toDto);
+    public Mono<CustomerDto> create(@Validated @RequestBody CustomerDto dto,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        return useCase.create(CustomerMapper.toDomain(dto), idempotencyKey).map(CustomerMapper::toDto);
+    }
+
+    // importación masiva: el cuerpo se procesa en streaming y se responde una línea por fila
+    @PostMapping(value = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerImportResult> importCsv(@RequestBody Flux<DataBuffer> body){
+        return useCase.importCustomers(importParser.parseCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerImportResult> importNdjson(@RequestBody Flux<DataBuffer> body){
+        return useCase.importCustomers(importParser.parseNdjson(body));
     }
 
+    // con If-Match (ETag de un GET previo) solo se aplica si nadie lo cambió entretanto; si no, 412
     @PutMapping("/{id}")
-    public Mono<CustomerDto> update(@PathVariable String id, @Validated @RequestBody CustomerDto dto){
-        return useCase.update(id, CustomerMapper.toDomain(dto)).map(CustomerMapper::toDto);
+    public Mono<ResponseEntity<CustomerDto>> update(@PathVariable String id, @Validated @RequestBody CustomerDto dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long expectedVersion = ifMatch == null ? null : CustomerETags.expectedVersion(ifMatch, id);
+        return useCase.update(id, CustomerMapper.toDomain(dto), expectedVersion)
+                .map(c -> ResponseEntity.ok().eTag(CustomerETags.of(c)).body(CustomerMapper.toDto(c)))
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        e -> new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match no coincide con la versión actual"));
     }
 
     @DeleteMapping("/{id}")
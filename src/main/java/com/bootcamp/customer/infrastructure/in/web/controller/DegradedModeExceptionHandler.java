@@ -0,0 +1,25 @@
+package com.bootcamp.customer.infrastructure.in.web.controller;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.TimeoutException;
+
+// Mongo no disponible o saturado: 503 inmediato (con Retry-After) en lugar de un 500 tardío
+@RestControllerAdvice
+public class DegradedModeExceptionHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class, TimeoutException.class})
+    public ResponseEntity<String> unavailable(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,14 @@
+package com.bootcamp.customer.infrastructure.in.web.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CustomerBatchRequest {
+    @Size(max = 500)
+    private List<String> ids;
+
+    @Size(max = 500)
+    private List<String> documentNumbers;
+}
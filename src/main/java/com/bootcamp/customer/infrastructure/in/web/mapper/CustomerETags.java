@@ -0,0 +1,38 @@
+package com.bootcamp.customer.infrastructure.in.web.mapper;
+
+import com.bootcamp.customer.domain.model.Customer;
+
+/**
+ * ETag fuerte a partir de id y versión: {@code "<id>-<version>"}. Cada escritura incrementa la
+ * versión, así que no hace falta leer ni hashear el cuerpo. Lleva el id para que
+ * {@code /customers/doc/{n}} no confunda un cliente borrado con otro creado después con el mismo
+ * documento. Los documentos anteriores a @Version cuentan como versión 0, igual que en el patch.
+ */
+public class CustomerETags {
+
+    public static final String ANY = "*";
+
+    public static String of(Customer c) {
+        return "\"" + c.getId() + "-" + (c.getVersion() == null ? 0L : c.getVersion()) + "\"";
+    }
+
+    /**
+     * Versión que pide un If-Match para el cliente {@code id}: {@code null} con "*" (basta que
+     * exista), -1 si ninguna de las ETags es de este cliente (no puede coincidir).
+     */
+    public static Long expectedVersion(String ifMatch, String id) {
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals(ANY)) return null;
+            if (t.startsWith(prefix) && t.endsWith("\"")) {
+                try {
+                    return Long.parseLong(t.substring(prefix.length(), t.length() - 1));
+                } catch (NumberFormatException e) {
+                    // ETag ajena: se sigue buscando
+                }
+            }
+        }
+        return -1L;
+    }
+}
@@ -1,8 +1,13 @@
 package com.bootcamp.customer.infrastructure.in.web.mapper;
 
 import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerPatch;
 import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class CustomerMapper {
     public static Customer toDomain(CustomerDto d){
         return Customer.builder()
@@ -17,4 +22,21 @@ public class CustomerMapper {
         d.setEmail(c.getEmail()); d.setPhones(c.getPhones());
         return d;
     }
+    // respuesta con solo los campos pedidos (fields=...), en el orden de la respuesta completa
+    public static Map<String, Object> toFields(Customer c, CustomerFields fields){
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (String f : fields.names()) {
+            out.put(f, switch (f) {
+                case CustomerFields.ID -> c.getId();
+                case CustomerPatch.TYPE -> c.getType();
+                case CustomerPatch.DOCUMENT_NUMBER -> c.getDocumentNumber();
+                case CustomerPatch.FULL_NAME -> c.getFullName();
+                case CustomerPatch.BUSINESS_NAME -> c.getBusinessName();
+                case CustomerPatch.EMAIL -> c.getEmail();
+                case CustomerPatch.PHONES -> c.getPhones();
+                default -> throw new IllegalArgumentException("campo desconocido: " + f);
+            });
+        }
+        return out;
+    }
 }
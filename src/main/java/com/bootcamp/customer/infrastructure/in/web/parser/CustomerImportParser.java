@@ -0,0 +1,127 @@
+package com.bootcamp.customer.infrastructure.in.web.parser;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerImportRow;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Convierte el cuerpo de una importación en filas sin cargarlo entero en memoria.
+ * CSV: la primera línea es la cabecera (doc,type,name[,email][,phones]) y los teléfonos
+ * van separados por '|'. NDJSON: un CustomerDto por línea.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerImportParser {
+
+    private static final StringDecoder LINES = StringDecoder.allMimeTypes();
+
+    private final ObjectMapper objectMapper;
+
+    public Flux<CustomerImportRow> parseCsv(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            AtomicLong rowNumber = new AtomicLong();
+            Map<String, Integer> header = new HashMap<>();
+            return lines(body)
+                    .filter(line -> {
+                        if (!header.isEmpty()) return true;
+                        List<String> cols = splitCsv(line);
+                        for (int i = 0; i < cols.size(); i++) {
+                            header.put(cols.get(i).trim().toLowerCase(Locale.ROOT), i);
+                        }
+                        return false; // la cabecera no es una fila
+                    })
+                    .map(line -> csvRow(rowNumber.incrementAndGet(), header, splitCsv(line)));
+        });
+    }
+
+    public Flux<CustomerImportRow> parseNdjson(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            AtomicLong rowNumber = new AtomicLong();
+            return lines(body).map(line -> {
+                long row = rowNumber.incrementAndGet();
+                try {
+                    CustomerDto dto = objectMapper.readValue(line, CustomerDto.class);
+                    return new CustomerImportRow(row, CustomerMapper.toDomain(dto), null);
+                } catch (Exception e) {
+                    return new CustomerImportRow(row, null, "JSON inválido: " + e.getMessage());
+                }
+            });
+        });
+    }
+
+    private Flux<String> lines(Flux<DataBuffer> body) {
+        return LINES.decode(body, ResolvableType.forClass(String.class), null, null)
+                .filter(line -> !line.isBlank());
+    }
+
+    private CustomerImportRow csvRow(long row, Map<String, Integer> header, List<String> cols) {
+        String doc = column(header, cols, "doc");
+        String type = column(header, cols, "type");
+        String name = column(header, cols, "name");
+        CustomerType customerType;
+        try {
+            customerType = type == null ? null : CustomerType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new CustomerImportRow(row, null, "type inválido: " + type);
+        }
+        String phones = column(header, cols, "phones");
+        Customer c = Customer.builder()
+                .documentNumber(doc)
+                .type(customerType)
+                .fullName(customerType == CustomerType.PERSONAL ? name : null)
+                .businessName(customerType == CustomerType.ENTERPRISE ? name : null)
+                .email(column(header, cols, "email"))
+                .phones(phones == null ? null : Arrays.asList(phones.split("\\|")))
+                .build();
+        return new CustomerImportRow(row, c, null);
+    }
+
+    private static String column(Map<String, Integer> header, List<String> cols, String name) {
+        Integer i = header.get(name);
+        if (i == null || i >= cols.size()) return null;
+        String v = cols.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    // separa por comas respetando campos entre comillas ("Innova, S.A.")
+    static List<String> splitCsv(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (ch == ',' && !quoted) {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bootcamp.customer.infrastructure.metrics;
+
+import com.bootcamp.customer.domain.model.BulkInsertResult;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Va pegado al adaptador de Mongo: cada llamada es una ida a la BD. Mide su latencia
+ * ({@code customer.repository{operation,outcome}}) y la suma al contador del pedido HTTP si
+ * hay uno en el contexto ({@link #ROUND_TRIPS}, ver {@link RequestMetricsFilter}).
+ */
+public class MeteredCustomerRepository implements CustomerRepositoryPort {
+
+    public static final String ROUND_TRIPS = "customer.mongo.roundTrips";
+
+    private final CustomerRepositoryPort delegate;
+    private final OperationMetrics metrics;
+
+    public MeteredCustomerRepository(CustomerRepositoryPort delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.metrics = new OperationMetrics("customer.repository", registry);
+    }
+
+    private <T> Mono<T> call(String operation, Mono<T> call) {
+        return Mono.deferContextual(ctx -> {
+            countRoundTrip(ctx);
+            return metrics.time(operation, call);
+        });
+    }
+
+    private <T> Flux<T> call(String operation, Flux<T> call) {
+        return Flux.deferContextual(ctx -> {
+            countRoundTrip(ctx);
+            return metrics.time(operation, call);
+        });
+    }
+
+    // también para idas que se hacen fuera del contexto del pedido (lotes de CustomerBatchLoader)
+    public static void countRoundTrip(ContextView ctx) {
+        ctx.<AtomicInteger>getOrEmpty(ROUND_TRIPS).ifPresent(AtomicInteger::incrementAndGet);
+    }
+
+    @Override public Flux<Customer> findAll() { return call("findAll", delegate.findAll()); }
+    @Override public Flux<Customer> findByType(CustomerType type) { return call("findByType", delegate.findByType(type)); }
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit) {
+        return call("findPage", delegate.findPage(type, afterId, limit));
+    }
+    @Override public Mono<Customer> findById(String id) { return call("findById", delegate.findById(id)); }
+    @Override public Mono<Customer> findByDocumentNumber(String doc) {
+        return call("findByDocumentNumber", delegate.findByDocumentNumber(doc));
+    }
+    @Override public Flux<Customer> findByEmail(String email, String afterId, int limit) {
+        return call("findByEmail", delegate.findByEmail(email, afterId, limit));
+    }
+    @Override public Flux<Customer> findByPhone(String phone, String afterId, int limit) {
+        return call("findByPhone", delegate.findByPhone(phone, afterId, limit));
+    }
+    @Override public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit) {
+        return call("findByNamePrefix", delegate.findByNamePrefix(prefix, afterKey, afterId, limit));
+    }
+    @Override public Mono<Map<CustomerShape, Long>> countByShape() {
+        return call("countByShape", delegate.countByShape());
+    }
+    // proyecciones: misma operación en las métricas
+    @Override public Flux<Customer> findAll(CustomerFields fields) { return call("findAll", delegate.findAll(fields)); }
+    @Override public Flux<Customer> findByType(CustomerType type, CustomerFields fields) {
+        return call("findByType", delegate.findByType(type, fields));
+    }
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit, CustomerFields fields) {
+        return call("findPage", delegate.findPage(type, afterId, limit, fields));
+    }
+    @Override public Mono<Customer> findById(String id, CustomerFields fields) {
+        return call("findById", delegate.findById(id, fields));
+    }
+    @Override public Mono<Customer> findByDocumentNumber(String doc, CustomerFields fields) {
+        return call("findByDocumentNumber", delegate.findByDocumentNumber(doc, fields));
+    }
+    @Override public Flux<Customer> findAllById(Collection<String> ids) {
+        return call("findAllById", delegate.findAllById(ids));
+    }
+    @Override public Flux<Customer> findAllByDocumentNumber(Collection<String> docs) {
+        return call("findAllByDocumentNumber", delegate.findAllByDocumentNumber(docs));
+    }
+    @Override public Mono<Customer> save(Customer customer) { return call("save", delegate.save(customer)); }
+    @Override public Mono<Customer> insert(Customer customer) { return call("insert", delegate.insert(customer)); }
+    @Override public Mono<Customer> patch(String id, CustomerPatch patch) { return call("patch", delegate.patch(id, patch)); }
+    @Override public Flux<String> findExistingDocumentNumbers(Collection<String> docs) {
+        return call("findExistingDocumentNumbers", delegate.findExistingDocumentNumbers(docs));
+    }
+    @Override public Flux<String> findAllDocumentNumbers() {
+        return call("findAllDocumentNumbers", delegate.findAllDocumentNumbers());
+    }
+    @Override public Mono<BulkInsertResult> insertAll(List<Customer> customers) {
+        return call("insertAll", delegate.insertAll(customers));
+    }
+    @Override public Mono<Void> deleteById(String id) { return call("deleteById", delegate.deleteById(id)); }
+    @Override public Mono<Customer> findAndDeleteById(String id) {
+        return call("findAndDeleteById", delegate.findAndDeleteById(id));
+    }
+}
@@ -0,0 +1,67 @@
+package com.bootcamp.customer.infrastructure.metrics;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerImportResult;
+import com.bootcamp.customer.domain.model.CustomerImportRow;
+import com.bootcamp.customer.domain.model.CustomerSearch;
+import com.bootcamp.customer.domain.model.CustomerStats;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.in.CustomerUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// latencia de cada caso de uso tal como la ve el controller: customer.usecase{operation,outcome}
+public class MeteredCustomerUseCase implements CustomerUseCase {
+
+    private final CustomerUseCase delegate;
+    private final OperationMetrics metrics;
+
+    public MeteredCustomerUseCase(CustomerUseCase delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.metrics = new OperationMetrics("customer.usecase", registry);
+    }
+
+    @Override public Flux<Customer> findAll(CustomerType type, CustomerFields fields) {
+        return metrics.time("findAll", delegate.findAll(type, fields));
+    }
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, Integer limit, CustomerFields fields) {
+        return metrics.time("findPage", delegate.findPage(type, afterId, limit, fields));
+    }
+    @Override public Mono<Customer> findById(String id, CustomerFields fields) {
+        return metrics.time("findById", delegate.findById(id, fields));
+    }
+    @Override public Mono<Customer> findByDocumentNumber(String documentNumber, CustomerFields fields) {
+        return metrics.time("findByDocumentNumber", delegate.findByDocumentNumber(documentNumber, fields));
+    }
+    @Override public Flux<Customer> search(CustomerSearch search, String afterId, Integer limit) {
+        return metrics.time("search", delegate.search(search, afterId, limit));
+    }
+    @Override public Flux<Customer> findByIds(Collection<String> ids) {
+        return metrics.time("findByIds", delegate.findByIds(ids));
+    }
+    @Override public Flux<Customer> findByDocumentNumbers(Collection<String> documentNumbers) {
+        return metrics.time("findByDocumentNumbers", delegate.findByDocumentNumbers(documentNumbers));
+    }
+    @Override public Mono<Customer> create(Customer customer) {
+        return metrics.time("create", delegate.create(customer));
+    }
+    @Override public Mono<Customer> create(Customer customer, String idempotencyKey) {
+        return metrics.time("create", delegate.create(customer, idempotencyKey));
+    }
+    @Override public Flux<CustomerImportResult> importCustomers(Flux<CustomerImportRow> rows) {
+        return metrics.time("importCustomers", delegate.importCustomers(rows));
+    }
+    @Override public Mono<Customer> update(String id, Customer customer, Long expectedVersion) {
+        return metrics.time("update", delegate.update(id, customer, expectedVersion));
+    }
+    @Override public Mono<Void> delete(String id) {
+        return metrics.time("delete", delegate.delete(id));
+    }
+    @Override public Mono<CustomerStats> stats() {
+        return metrics.time("stats", delegate.stats());
+    }
+}
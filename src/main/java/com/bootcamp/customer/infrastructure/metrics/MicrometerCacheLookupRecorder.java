@@ -0,0 +1,30 @@
+package com.bootcamp.customer.infrastructure.metrics;
+
+import com.bootcamp.customer.infrastructure.out.cache.CacheLookupRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// customer.cache.lookup{cache,lookup}: separa el p99 de aciertos, esperas compartidas y cargas
+public class MicrometerCacheLookupRecorder implements CacheLookupRecorder {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MicrometerCacheLookupRecorder(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void record(String cache, Lookup lookup, long nanos) {
+        timers.computeIfAbsent(cache + '|' + lookup, k -> Timer.builder("customer.cache.lookup")
+                        .tag("cache", cache)
+                        .tag("lookup", lookup.name().toLowerCase())
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bootcamp.customer.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timer con histograma por operación y resultado ({@code <name>{operation,outcome}}) más un
+ * gauge de llamadas en curso ({@code <name>.inflight{operation}}). El tiempo va desde la
+ * suscripción hasta la terminación, así que incluye lo que el publisher espere.
+ */
+public class OperationMetrics {
+
+    private final String name;
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public OperationMetrics(String name, MeterRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+    }
+
+    public <T> Mono<T> time(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            AtomicInteger running = inFlight(operation);
+            running.incrementAndGet();
+            Timer.Sample sample = Timer.start(registry);
+            AtomicBoolean emitted = new AtomicBoolean();
+            return call.doOnNext(v -> emitted.set(true))
+                    .doFinally(signal -> {
+                        running.decrementAndGet();
+                        sample.stop(timer(operation, outcome(signal, emitted.get())));
+                    });
+        });
+    }
+
+    public <T> Flux<T> time(String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            AtomicInteger running = inFlight(operation);
+            running.incrementAndGet();
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> {
+                running.decrementAndGet();
+                sample.stop(timer(operation, outcome(signal, true)));
+            });
+        });
+    }
+
+    private static String outcome(SignalType signal, boolean emitted) {
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> emitted ? "success" : "empty";
+        };
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return timers.computeIfAbsent(operation + '|' + outcome, k -> Timer.builder(name)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private AtomicInteger inFlight(String operation) {
+        return inFlight.computeIfAbsent(operation, op -> {
+            AtomicInteger running = new AtomicInteger();
+            Gauge.builder(name + ".inflight", running, AtomicInteger::get)
+                    .tag("operation", op)
+                    .register(registry);
+            return running;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.bootcamp.customer.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Por pedido a /customers: gauge de pedidos en curso ({@code customer.http.inflight}) y cuántas
+ * idas a Mongo hizo ({@code customer.http.mongo.round.trips{method,uri}}). El contador viaja en
+ * el contexto de Reactor hasta {@link MeteredCustomerRepository}; las lecturas que van por
+ * {@code CustomerBatchLoader} se cuentan en {@code CachingCustomerRepository} (el lote se
+ * consulta fuera del contexto de cada pedido).
+ */
+public class RequestMetricsFilter implements WebFilter {
+
+    private static final String PATH_PREFIX = "/customers";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Map<String, DistributionSummary>> roundTripsByRoute = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("customer.http.inflight", inFlight, AtomicInteger::get).register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(PATH_PREFIX)) return chain.filter(exchange);
+        return Mono.defer(() -> {
+            AtomicInteger roundTrips = new AtomicInteger();
+            inFlight.incrementAndGet();
+            return chain.filter(exchange)
+                    .contextWrite(ctx -> ctx.put(MeteredCustomerRepository.ROUND_TRIPS, roundTrips))
+                    .doFinally(signal -> {
+                        inFlight.decrementAndGet();
+                        roundTrips(exchange.getRequest().getMethod().name(), uri(exchange)).record(roundTrips.get());
+                    });
+        });
+    }
+
+    // se registra una vez por (método, plantilla); después es una lectura del mapa sin armar tags
+    private DistributionSummary roundTrips(String method, String uri) {
+        Map<String, DistributionSummary> byUri = roundTripsByRoute.get(method);
+        if (byUri == null) byUri = roundTripsByRoute.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+        DistributionSummary summary = byUri.get(uri);
+        if (summary != null) return summary;
+        return byUri.computeIfAbsent(uri, u -> DistributionSummary.builder("customer.http.mongo.round.trips")
+                .tag("method", method)
+                .tag("uri", u)
+                .register(registry));
+    }
+
+    // plantilla de la ruta (/customers/{id}), no la ruta concreta: evita una serie por id
+    private static String uri(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
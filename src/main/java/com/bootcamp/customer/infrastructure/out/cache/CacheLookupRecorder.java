@@ -0,0 +1,17 @@
+package com.bootcamp.customer.infrastructure.out.cache;
+
+// cómo se resolvió cada lectura de CachingCustomerRepository y cuánto tardó
+@FunctionalInterface
+public interface CacheLookupRecorder {
+
+    enum Lookup {
+        HIT,        // valor ya cargado
+        COALESCED,  // se esperó una carga que otro pedido ya había lanzado
+        LOAD,       // esta lectura lanzó la consulta a la BD
+        ABSENT      // respondida como inexistente sin ir a la BD
+    }
+
+    CacheLookupRecorder NOOP = (cache, lookup, nanos) -> { };
+
+    void record(String cache, Lookup lookup, long nanos);
+}
@@ -0,0 +1,555 @@
+package com.bootcamp.customer.infrastructure.out.cache;
+
+import com.bootcamp.customer.application.CustomerBatchLoader;
+import com.bootcamp.customer.domain.model.BulkInsertResult;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.metrics.MeteredCustomerRepository;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidation;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidationBus;
+import com.bootcamp.customer.infrastructure.out.cache.negative.MissingDocumentGuard;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link CustomerRepositoryPort} dueño de las cachés por id y por documento.
+ * <p>
+ * Ambas claves se tratan como una sola entrada: toda escritura primero marca un sello
+ * ({@link #stamp}) sobre el id y los documentos afectados y después actualiza o invalida las
+ * dos claves. Una carga que empezó antes de ese sello no puede volver a poblar la otra clave
+ * con datos viejos, y la clave propia la protege Caffeine (el future en vuelo se reemplaza).
+ * <p>
+ * Refresco anticipado: un acierto cuya entrada tiene más de {@code refreshAfterWrite} se
+ * sirve tal cual y dispara una única recarga en segundo plano; el {@code expireAfterWrite}
+ * de la caché sigue siendo el límite duro.
+ * <p>
+ * Con {@link MissingDocumentGuard} las búsquedas por documento que seguro no existen se
+ * responden vacías sin consultar la BD.
+ */
+@Slf4j
+public class CachingCustomerRepository implements CustomerRepositoryPort {
+
+    private static final String DOC_PREFIX = "doc:";
+    private static final String ID_PREFIX = "id:";     // solo para las marcas de recarga en vuelo
+    public static final String BY_ID = "by-id";       // nombres de las cachés en las métricas
+    public static final String BY_DOC = "by-doc";
+
+    private final CustomerRepositoryPort delegate;
+    private final AsyncCache<String, Customer> byId;
+    private final AsyncCache<String, Customer> byDoc;
+    private final CustomerBatchLoader batchLoader; // null -> un findById por fallo
+    private final CustomerInvalidationBus bus;     // null -> nodo único
+    private final Supplier<Duration> refreshAfterWrite; // da null o cero -> sin refresco anticipado
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet(); // una recarga por clave
+    private final MissingDocumentGuard missingDocs; // null -> sin caché negativa ni filtro
+    private final CacheLookupRecorder lookups;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long lastReset;               // sello del último vaciado completo
+    // último sello de escritura por clave; solo hace falta mientras pueda haber cargas en vuelo
+    private final Cache<String, Long> lastWrite = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .maximumSize(100_000)
+            .build();
+
+    public CachingCustomerRepository(CustomerRepositoryPort delegate,
+                                     AsyncCache<String, Customer> byId,
+                                     AsyncCache<String, Customer> byDoc,
+                                     Options options) {
+        this.delegate = delegate;
+        this.byId = byId;
+        this.byDoc = byDoc;
+        this.batchLoader = options.getBatchLoader();
+        this.bus = options.getBus();
+        this.refreshAfterWrite = options.getRefreshAfterWrite() == null ? () -> null : options.getRefreshAfterWrite();
+        this.missingDocs = options.getMissingDocs();
+        this.lookups = options.getLookups() == null ? CacheLookupRecorder.NOOP : options.getLookups();
+    }
+
+    /** Colaboradores opcionales; lo que queda sin asignar se comporta como antes de existir. */
+    @Value
+    @Builder
+    public static class Options {
+        CustomerBatchLoader batchLoader;       // null -> un findById por fallo
+        CustomerInvalidationBus bus;           // null -> nodo único
+        Supplier<Duration> refreshAfterWrite;  // se lee en cada acierto: sigue a un /actuator/refresh
+        MissingDocumentGuard missingDocs;      // null -> sin caché negativa ni filtro
+        CacheLookupRecorder lookups;           // null -> no se registra nada
+
+        public static Options defaults() {
+            return builder().build();
+        }
+    }
+
+    // ---------- lecturas con caché ----------
+
+    // los suscriptores concurrentes de una clave comparten un solo future (una sola consulta);
+    // suppressCancel evita que la cancelación de uno cancele la carga de los demás.
+    // La carga lleva el contexto del pedido que la lanzó (p. ej. el contador de idas a Mongo)
+    @Override
+    public Mono<Customer> findById(String id) {
+        return Mono.deferContextual(ctx -> {
+            long t0 = System.nanoTime();
+            boolean[] loaded = {false};
+            CompletableFuture<Customer> cached = byId.get(id, (k, executor) -> {
+                loaded[0] = true;
+                return loadById(k, ctx);
+            });
+            refreshIfStale(byId, id, cached, ID_PREFIX + id, () -> sourceById(id));
+            return timed(BY_ID, lookupOf(loaded[0], cached), t0, Mono.fromFuture(cached, true));
+        });
+    }
+
+    @Override
+    public Mono<Customer> findByDocumentNumber(String doc) {
+        return Mono.deferContextual(ctx -> {
+            long t0 = System.nanoTime();
+            if (definitelyAbsent(doc)) return timed(BY_DOC, CacheLookupRecorder.Lookup.ABSENT, t0, Mono.<Customer>empty());
+            boolean[] loaded = {false};
+            CompletableFuture<Customer> cached = byDoc.get(doc, (k, executor) -> {
+                loaded[0] = true;
+                return loadByDoc(k, ctx);
+            });
+            refreshIfStale(byDoc, doc, cached, DOC_PREFIX + doc, () -> delegate.findByDocumentNumber(doc));
+            return timed(BY_DOC, lookupOf(loaded[0], cached), t0, Mono.fromFuture(cached, true));
+        });
+    }
+
+    // con proyección: si la entidad completa ya está (o se está cargando) se reutiliza; si no, se
+    // consulta solo lo pedido y no se cachea, porque las cachés guardan documentos completos
+    @Override
+    public Mono<Customer> findById(String id, CustomerFields fields) {
+        if (fields == null) return findById(id);
+        return Mono.defer(() -> {
+            long t0 = System.nanoTime();
+            CompletableFuture<Customer> cached = byId.getIfPresent(id);
+            if (cached == null || cached.isCompletedExceptionally()) return delegate.findById(id, fields);
+            return timed(BY_ID, lookupOf(false, cached), t0, Mono.fromFuture(cached, true));
+        });
+    }
+
+    @Override
+    public Mono<Customer> findByDocumentNumber(String doc, CustomerFields fields) {
+        if (fields == null) return findByDocumentNumber(doc);
+        return Mono.defer(() -> {
+            long t0 = System.nanoTime();
+            if (definitelyAbsent(doc)) return timed(BY_DOC, CacheLookupRecorder.Lookup.ABSENT, t0, Mono.<Customer>empty());
+            CompletableFuture<Customer> cached = byDoc.getIfPresent(doc);
+            if (cached == null || cached.isCompletedExceptionally()) return delegate.findByDocumentNumber(doc, fields);
+            return timed(BY_DOC, lookupOf(false, cached), t0, Mono.fromFuture(cached, true));
+        });
+    }
+
+    private static CacheLookupRecorder.Lookup lookupOf(boolean loaded, CompletableFuture<?> cached) {
+        if (loaded) return CacheLookupRecorder.Lookup.LOAD;
+        return cached.isDone() ? CacheLookupRecorder.Lookup.HIT : CacheLookupRecorder.Lookup.COALESCED;
+    }
+
+    private <T> Mono<T> timed(String cache, CacheLookupRecorder.Lookup lookup, long t0, Mono<T> result) {
+        return result.doFinally(signal -> lookups.record(cache, lookup, System.nanoTime() - t0));
+    }
+
+    // getAll: aciertos (o cargas en curso) desde la caché, los fallos en un solo $in
+    @Override
+    public Flux<Customer> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) return Flux.empty();
+        return Flux.deferContextual(ctx -> {
+            long t0 = System.nanoTime();
+            long start = generation.get();
+            boolean[] loaded = {false};
+            CompletableFuture<Map<String, Customer>> found = byId.getAll(ids, (misses, executor) -> {
+                loaded[0] = true;
+                return delegate.findAllById(List.copyOf(misses))
+                        .doOnNext(c -> link(byDoc, docKey(c), c, start))
+                        .collectMap(Customer::getId)
+                        .contextWrite(ctx)
+                        .toFuture();
+            });
+            return timed(BY_ID, lookupOf(loaded[0], found), t0, Mono.fromFuture(found, true))
+                    .flatMapIterable(Map::values);
+        });
+    }
+
+    @Override
+    public Flux<Customer> findAllByDocumentNumber(Collection<String> docs) {
+        if (docs.isEmpty()) return Flux.empty();
+        return Flux.deferContextual(ctx -> {
+            long t0 = System.nanoTime();
+            List<String> candidates = docs.stream().filter(doc -> !definitelyAbsent(doc)).toList();
+            if (candidates.isEmpty()) {
+                return timed(BY_DOC, CacheLookupRecorder.Lookup.ABSENT, t0, Mono.<Map<String, Customer>>empty())
+                        .flatMapIterable(Map::values);
+            }
+            long start = generation.get();
+            boolean[] loaded = {false};
+            CompletableFuture<Map<String, Customer>> found = byDoc.getAll(candidates, (misses, executor) -> {
+                loaded[0] = true;
+                return delegate.findAllByDocumentNumber(List.copyOf(misses))
+                        .doOnNext(c -> link(byId, c.getId(), c, start))
+                        .collectMap(Customer::getDocumentNumber)
+                        .contextWrite(ctx)
+                        .toFuture();
+            });
+            return timed(BY_DOC, lookupOf(loaded[0], found), t0, Mono.fromFuture(found, true))
+                    .flatMapIterable(Map::values);
+        });
+    }
+
+    private CompletableFuture<Customer> loadById(String id, ContextView ctx) {
+        long start = generation.get();
+        return sourceById(id)
+                .doOnNext(c -> link(byDoc, docKey(c), c, start))
+                .contextWrite(ctx)
+                .toFuture(); // vacío -> null -> Caffeine descarta la entrada
+    }
+
+    private CompletableFuture<Customer> loadByDoc(String doc, ContextView ctx) {
+        long start = generation.get();
+        return delegate.findByDocumentNumber(doc)
+                .doOnNext(c -> link(byId, c.getId(), c, start))
+                .switchIfEmpty(Mono.fromRunnable(() -> recordMissing(doc, start)))
+                .contextWrite(ctx)
+                .toFuture();
+    }
+
+    // ---------- documentos inexistentes ----------
+
+    private boolean definitelyAbsent(String doc) {
+        return missingDocs != null && missingDocs.definitelyAbsent(doc);
+    }
+
+    // una lectura vacía que se cruzó con un alta de ese documento no debe recordarse como ausente
+    private void recordMissing(String doc, long start) {
+        if (missingDocs == null || lastReset > start || stampedAfter(start, DOC_PREFIX + doc)) return;
+        missingDocs.recordMissing(doc);
+    }
+
+    private void recordPresent(String doc) {
+        if (missingDocs != null) missingDocs.recordPresent(doc);
+    }
+
+    // cambio sin documento conocido (o eventos perdidos): el filtro ya no es confiable
+    private void distrustMissing() {
+        if (missingDocs != null) missingDocs.distrust();
+    }
+
+    // el lote se consulta sin el contexto de ningún pedido: cada pedido que espera un lote suma
+    // una ida a su propio contador
+    private Mono<Customer> sourceById(String id) {
+        if (batchLoader == null) return delegate.findById(id);
+        return Mono.deferContextual(ctx -> {
+            MeteredCustomerRepository.countRoundTrip(ctx);
+            return batchLoader.load(id);
+        });
+    }
+
+    // ---------- refresco anticipado (stale-while-revalidate) ----------
+
+    // solo se arma la consulta si la entrada está vieja y nadie la está recargando ya
+    private void refreshIfStale(AsyncCache<String, Customer> cache, String key, CompletableFuture<Customer> cached,
+                                String token, Supplier<Mono<Customer>> reload) {
+        if (!isStale(cache, key, cached) || !refreshing.add(token)) return;
+        long start = generation.get();
+        String oldDoc = docKey(cached.getNow(null));
+        reload.get()
+                .doOnNext(c -> {
+                    // el documento cambió fuera de este servicio: la clave vieja ya no apunta a él
+                    if (oldDoc != null && !oldDoc.equals(docKey(c)) && !writtenSince(start, c)) {
+                        byDoc.synchronous().invalidate(oldDoc);
+                    }
+                    link(byId, c.getId(), c, start);
+                    link(byDoc, docKey(c), c, start);
+                })
+                // ya no existe en la BD: se quita solo si la entrada sigue siendo la que se sirvió
+                .switchIfEmpty(Mono.fromRunnable(() -> cache.asMap().remove(key, cached)))
+                .doFinally(signal -> refreshing.remove(token))
+                .subscribe(c -> { }, e -> log.debug("Refresco de {} fallido, se mantiene lo cacheado", token, e));
+    }
+
+    private boolean isStale(AsyncCache<String, Customer> cache, String key, CompletableFuture<Customer> cached) {
+        Duration refreshAfter = refreshAfterWrite.get();
+        if (refreshAfter == null || refreshAfter.isZero()) return false;
+        if (!cached.isDone() || cached.isCompletedExceptionally() || cached.getNow(null) == null) return false;
+        return cache.synchronous().policy().expireAfterWrite()
+                .flatMap(expiry -> expiry.ageOf(key))
+                .map(age -> age.compareTo(refreshAfter) >= 0)
+                .orElse(false);
+    }
+
+    // puebla la otra clave solo si nadie escribió ese cliente desde que empezó la carga y si lo
+    // cacheado no es más nuevo; compute serializa contra las escrituras sobre la misma clave
+    private void link(AsyncCache<String, Customer> cache, String key, Customer loaded, long start) {
+        if (key == null) return;
+        cache.asMap().compute(key, (k, current) ->
+                writtenSince(start, loaded) || isNewer(current, loaded)
+                        ? current
+                        : CompletableFuture.completedFuture(loaded));
+    }
+
+    private boolean writtenSince(long start, Customer c) {
+        String doc = docKey(c);
+        return lastReset > start
+                || stampedAfter(start, c.getId()) || (doc != null && stampedAfter(start, DOC_PREFIX + doc));
+    }
+
+    private boolean stampedAfter(long start, String key) {
+        if (key == null) return false;
+        Long s = lastWrite.getIfPresent(key);
+        return s != null && s > start;
+    }
+
+    private static boolean isNewer(CompletableFuture<Customer> current, Customer candidate) {
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()) return false;
+        Customer cached = current.getNow(null);
+        return cached != null && version(cached) > version(candidate);
+    }
+
+    private static long version(Customer c) {
+        return c.getVersion() == null ? 0L : c.getVersion();
+    }
+
+    private static String docKey(Customer c) {
+        return c.getDocumentNumber();
+    }
+
+    // ---------- escrituras: sello + actualización/invalidación de ambas claves ----------
+
+    private void stamp(String id, String... docs) {
+        long s = generation.incrementAndGet();
+        if (id != null) lastWrite.put(id, s);
+        for (String doc : docs) {
+            if (doc != null) lastWrite.put(DOC_PREFIX + doc, s);
+        }
+    }
+
+    private void store(Customer c, String previousDoc) {
+        String newDoc = docKey(c);
+        stamp(c.getId(), previousDoc, newDoc);
+        recordPresent(newDoc);
+        if (c.getId() != null) byId.synchronous().put(c.getId(), c);
+        if (previousDoc != null && !previousDoc.equals(newDoc)) byDoc.synchronous().invalidate(previousDoc);
+        if (newDoc != null) byDoc.synchronous().put(newDoc, c);
+    }
+
+    // invalida ambas claves de un cliente; si no se conoce el documento se toma de la entrada por id
+    private void evict(String id, String doc) {
+        String cachedDoc = cachedDocOf(id);
+        stamp(id, doc, cachedDoc);
+        if (id != null) byId.synchronous().invalidate(id);
+        if (doc != null) byDoc.synchronous().invalidate(doc);
+        if (cachedDoc != null && !cachedDoc.equals(doc)) byDoc.synchronous().invalidate(cachedDoc);
+    }
+
+    private String cachedDocOf(String id) {
+        if (id == null) return null;
+        CompletableFuture<Customer> f = byId.getIfPresent(id);
+        Customer c = f == null ? null : f.getNow(null);
+        return c == null ? null : docKey(c);
+    }
+
+    // ---------- cambios hechos por otras réplicas ----------
+
+    /**
+     * Refleja un cambio remoto. Solo se refrescan las claves que ya están en caché (no se
+     * llena la caché con clientes que este nodo no pidió) y nunca se pisa una versión más nueva.
+     */
+    public void apply(CustomerInvalidation event) {
+        switch (event.getKind()) {
+            case UPSERT -> {
+                if (event.getCustomer() == null) {
+                    // sin estado nuevo: si se sabe qué documento pudo quedar, basta con darlo por existente
+                    evict(event.getId(), event.getPreviousDocumentNumber());
+                    if (event.getDocumentNumber() != null) recordPresent(event.getDocumentNumber());
+                    else distrustMissing();
+                } else {
+                    refresh(event.getCustomer(), event.getPreviousDocumentNumber());
+                }
+            }
+            case DELETE -> evict(event.getId(), event.getDocumentNumber());
+            case RESET -> {
+                invalidateAll();
+                distrustMissing();
+            }
+        }
+    }
+
+    private void refresh(Customer c, String previousDoc) {
+        String newDoc = docKey(c);
+        String cachedDoc = cachedDocOf(c.getId());
+        stamp(c.getId(), previousDoc, cachedDoc, newDoc);
+        recordPresent(newDoc);
+        if (c.getId() != null) {
+            byId.asMap().computeIfPresent(c.getId(), (k, current) ->
+                    isNewer(current, c) ? current : CompletableFuture.completedFuture(c));
+        }
+        for (String old : new String[]{previousDoc, cachedDoc}) {
+            if (old != null && !old.equals(newDoc)) byDoc.synchronous().invalidate(old);
+        }
+        if (newDoc != null) {
+            byDoc.asMap().computeIfPresent(newDoc, (k, current) ->
+                    isNewer(current, c) ? current : CompletableFuture.completedFuture(c));
+        }
+    }
+
+    public void invalidateAll() {
+        lastReset = generation.incrementAndGet();
+        byId.synchronous().invalidateAll();
+        byDoc.synchronous().invalidateAll();
+    }
+
+    private void publish(CustomerInvalidation.Kind kind, Customer c, String id, String doc, String previousDoc) {
+        if (bus == null) return;
+        bus.publish(CustomerInvalidation.builder()
+                .kind(kind).id(id).customer(c).documentNumber(doc).previousDocumentNumber(previousDoc)
+                .build());
+    }
+
+    // ---------- escrituras locales ----------
+
+    @Override
+    public Mono<Customer> insert(Customer customer) {
+        return delegate.insert(customer).doOnNext(saved -> {
+            store(saved, null);
+            publish(CustomerInvalidation.Kind.UPSERT, saved, saved.getId(), docKey(saved), null);
+        }).doOnError(e -> {
+            // un duplicado confirma que el documento existe; otro error deja la duda de si se insertó
+            if (!rejected(e)) recordPresent(docKey(customer));
+        });
+    }
+
+    @Override
+    public Mono<Customer> save(Customer customer) {
+        String previousDoc = cachedDocOf(customer.getId());
+        return delegate.save(customer).doOnNext(saved -> {
+            store(saved, previousDoc);
+            publish(CustomerInvalidation.Kind.UPSERT, saved, saved.getId(), docKey(saved), previousDoc);
+        }).doOnError(e -> {
+            if (rejected(e)) return;
+            evict(customer.getId(), previousDoc);
+            recordPresent(docKey(customer));
+            publish(CustomerInvalidation.Kind.UPSERT, null, customer.getId(), docKey(customer), previousDoc);
+        });
+    }
+
+    @Override
+    public Mono<Customer> patch(String id, CustomerPatch patch) {
+        return delegate.patch(id, patch)
+                .doOnNext(previous -> {
+                    Customer current = patch.applyTo(previous.toBuilder().build());
+                    store(current, docKey(previous));
+                    publish(CustomerInvalidation.Kind.UPSERT, current, id, docKey(current), docKey(previous));
+                })
+                // si no sabemos si el cambio se aplicó, no se puede confiar en lo cacheado; las demás
+                // réplicas solo se enteran si pudo aparecer un documento nuevo (el resto lo trae el
+                // change stream o vence con el TTL)
+                .doOnError(e -> {
+                    if (rejected(e)) return;
+                    evict(id, null);
+                    Object doc = patch.getSet().get(CustomerPatch.DOCUMENT_NUMBER);
+                    if (doc instanceof String newDoc) {
+                        recordPresent(newDoc);
+                        publish(CustomerInvalidation.Kind.UPSERT, null, id, newDoc, null);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return findAndDeleteById(id).then();
+    }
+
+    @Override
+    public Mono<Customer> findAndDeleteById(String id) {
+        return delegate.findAndDeleteById(id)
+                .doOnSuccess(deleted -> {
+                    String doc = deleted == null ? null : docKey(deleted);
+                    evict(id, doc);
+                    publish(CustomerInvalidation.Kind.DELETE, null, id, doc, null);
+                });
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<Customer> customers) {
+        // los documentos nuevos no pueden estar cacheados: no hay nada que invalidar, solo
+        // dejar de tratarlos como inexistentes
+        return delegate.insertAll(customers)
+                .doOnNext(result -> result.getInserted().values().forEach(c -> recordPresent(docKey(c))))
+                .doOnError(e -> {
+                    if (!rejected(e)) customers.forEach(c -> recordPresent(docKey(c)));
+                });
+    }
+
+    // rechazos seguros (versión vieja, duplicado, breaker abierto o bulkhead lleno): la
+    // escritura no se aplicó y no hay nada que invalidar. Cualquier otro error (p. ej. timeout)
+    // deja la duda
+    private static boolean rejected(Throwable e) {
+        return e instanceof OptimisticLockingFailureException
+                || e instanceof DuplicateKeyException
+                || e instanceof CallNotPermittedException
+                || e instanceof BulkheadFullException;
+    }
+
+    // ---------- listados: sin caché ----------
+
+    @Override public Flux<Customer> findAll() { return delegate.findAll(); }
+    @Override public Flux<Customer> findByType(CustomerType type) { return delegate.findByType(type); }
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit) {
+        return delegate.findPage(type, afterId, limit);
+    }
+    @Override public Flux<Customer> findAll(CustomerFields fields) { return delegate.findAll(fields); }
+    @Override public Flux<Customer> findByType(CustomerType type, CustomerFields fields) {
+        return delegate.findByType(type, fields);
+    }
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit, CustomerFields fields) {
+        return delegate.findPage(type, afterId, limit, fields);
+    }
+    // el $in de la importación solo lleva los documentos que podrían existir
+    @Override public Flux<String> findExistingDocumentNumbers(Collection<String> docs) {
+        List<String> candidates = docs.stream().filter(doc -> !definitelyAbsent(doc)).toList();
+        return candidates.isEmpty() ? Flux.empty() : delegate.findExistingDocumentNumbers(candidates);
+    }
+    @Override public Flux<String> findAllDocumentNumbers() { return delegate.findAllDocumentNumbers(); }
+
+    @Override public Mono<Map<CustomerShape, Long>> countByShape() { return delegate.countByShape(); }
+
+    // ---------- búsquedas: sin caché ----------
+
+    @Override public Flux<Customer> findByEmail(String email, String afterId, int limit) {
+        return delegate.findByEmail(email, afterId, limit);
+    }
+    @Override public Flux<Customer> findByPhone(String phone, String afterId, int limit) {
+        return delegate.findByPhone(phone, afterId, limit);
+    }
+    @Override public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit) {
+        return delegate.findByNamePrefix(prefix, afterKey, afterId, limit);
+    }
+
+    // visibles para quien necesite inspeccionar o sembrar las cachés
+    public AsyncCache<String, Customer> byIdCache() { return byId; }
+    public AsyncCache<String, Customer> byDocCache() { return byDoc; }
+}
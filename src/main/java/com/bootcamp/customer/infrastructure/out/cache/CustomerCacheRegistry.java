@@ -0,0 +1,94 @@
+package com.bootcamp.customer.infrastructure.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Cachés de clientes por nombre, para inspeccionarlas y cambiarles el tamaño o el TTL en
+ * caliente. Caffeine aplica el nuevo máximo desalojando en el momento lo que sobre.
+ */
+public class CustomerCacheRegistry {
+
+    private final Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+
+    public CustomerCacheRegistry register(String name, Cache<?, ?> cache) {
+        caches.put(name, cache);
+        return this;
+    }
+
+    public Map<String, Cache<?, ?>> caches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    public Optional<CacheReport> report(String name) {
+        return Optional.ofNullable(caches.get(name)).map(cache -> report(name, cache));
+    }
+
+    public Map<String, CacheReport> reports() {
+        Map<String, CacheReport> out = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> out.put(name, report(name, cache)));
+        return out;
+    }
+
+    /** Cambia máximo (bytes estimados) y/o TTL; {@code null} deja el valor actual. */
+    public Optional<CacheReport> resize(String name, Long maximumWeight, Duration expireAfterWrite) {
+        Cache<?, ?> cache = caches.get(name);
+        if (cache == null) return Optional.empty();
+        Policy<?, ?> policy = cache.policy();
+        if (maximumWeight != null) {
+            policy.eviction().ifPresent(e -> e.setMaximum(maximumWeight));
+        }
+        if (expireAfterWrite != null) {
+            policy.expireAfterWrite().ifPresent(e -> e.setExpiresAfter(expireAfterWrite));
+        }
+        return Optional.of(report(name, cache));
+    }
+
+    private static CacheReport report(String name, Cache<?, ?> cache) {
+        Policy<?, ?> policy = cache.policy();
+        CacheStats stats = cache.stats();
+        return CacheReport.builder()
+                .name(name)
+                .entries(cache.estimatedSize())
+                .estimatedBytes(policy.eviction().flatMap(e -> boxed(e.weightedSize())).orElse(null))
+                .maximumBytes(policy.eviction().map(Policy.Eviction::getMaximum).orElse(null))
+                .expireAfterWrite(policy.expireAfterWrite().map(Policy.FixedExpiration::getExpiresAfter).orElse(null))
+                .recordingStats(policy.isRecordingStats())
+                .hitRate(stats.hitRate())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .evictedBytes(stats.evictionWeight())
+                .build();
+    }
+
+    private static Optional<Long> boxed(OptionalLong value) {
+        return value.isPresent() ? Optional.of(value.getAsLong()) : Optional.empty();
+    }
+
+    @Value
+    @Builder
+    public static class CacheReport {
+        String name;
+        long entries;
+        Long estimatedBytes;
+        Long maximumBytes;
+        Duration expireAfterWrite;
+        boolean recordingStats;
+        double hitRate;
+        long hits;
+        long misses;
+        long evictions;
+        long evictedBytes;
+    }
+}
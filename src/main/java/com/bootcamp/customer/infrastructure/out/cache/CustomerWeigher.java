@@ -0,0 +1,58 @@
+package com.bootcamp.customer.infrastructure.out.cache;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.List;
+
+/**
+ * Peso de una entrada = bytes estimados en el heap (JVM de 64 bits con oops comprimidos y
+ * strings compactos): clave, {@link Customer} con sus strings y teléfonos, y lo que añade
+ * Caffeine por entrada. Es una estimación para dimensionar por presupuesto de memoria.
+ */
+public final class CustomerWeigher implements Weigher<String, Customer> {
+
+    public static final CustomerWeigher INSTANCE = new CustomerWeigher();
+
+    static final int ENTRY_OVERHEAD = 96;   // nodo de Caffeine + future del AsyncCache
+    static final int CUSTOMER_SHALLOW = 40; // cabecera + 8 referencias/campos
+    static final int LONG_BOX = 16;
+    static final int INSTANT = 24;
+    static final int LIST_SHALLOW = 40;     // ArrayList + cabecera del arreglo
+
+    private CustomerWeigher() { }
+
+    @Override
+    public int weigh(String key, Customer c) {
+        return Math.toIntExact(Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + string(key) + estimate(c)));
+    }
+
+    public static long estimate(Customer c) {
+        if (c == null) return 0;
+        long size = CUSTOMER_SHALLOW
+                + string(c.getId()) + string(c.getDocumentNumber()) + string(c.getFullName())
+                + string(c.getBusinessName()) + string(c.getEmail())
+                + (c.getVersion() == null ? 0 : LONG_BOX)
+                + (c.getLastModified() == null ? 0 : INSTANT);
+        List<String> phones = c.getPhones();
+        if (phones != null) {
+            size += LIST_SHALLOW + 4L * phones.size();
+            for (String p : phones) size += string(p);
+        }
+        return size;
+    }
+
+    // String (24) + byte[] (16 + largo, alineado a 8); Latin-1 ocupa un byte por carácter
+    static long string(String s) {
+        if (s == null) return 0;
+        long bytes = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) { bytes = 2L * s.length(); break; }
+        }
+        return 24 + align(16 + bytes);
+    }
+
+    private static long align(long n) {
+        return (n + 7) & ~7L;
+    }
+}
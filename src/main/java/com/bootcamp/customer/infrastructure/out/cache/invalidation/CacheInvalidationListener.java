@@ -0,0 +1,79 @@
+package com.bootcamp.customer.infrastructure.out.cache.invalidation;
+
+import com.bootcamp.customer.infrastructure.out.cache.CachingCustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// aplica a las cachés locales los cambios que llegan por el bus y mide con cuánto retraso llegan
+@Slf4j
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private final CustomerInvalidationBus bus;
+    private final CachingCustomerRepository cache;
+    private final Timer lag;
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final Map<CustomerInvalidation.Kind, Counter> events = new EnumMap<>(CustomerInvalidation.Kind.class);
+    private volatile Disposable subscription;
+
+    public CacheInvalidationListener(CustomerInvalidationBus bus, CachingCustomerRepository cache, MeterRegistry registry) {
+        this.bus = bus;
+        this.cache = cache;
+        this.lag = Timer.builder("customer.cache.invalidation.lag")
+                .description("tiempo entre la escritura en origen y su aplicación en este nodo")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("customer.cache.invalidation.last.lag", lastLagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(registry);
+        for (CustomerInvalidation.Kind kind : CustomerInvalidation.Kind.values()) {
+            events.put(kind, Counter.builder("customer.cache.invalidation.events")
+                    .tag("kind", kind.name())
+                    .register(registry));
+        }
+    }
+
+    void handle(CustomerInvalidation event) {
+        cache.apply(event);
+        events.get(event.getKind()).increment();
+        if (event.getEventTime() != null) {
+            Duration d = Duration.between(event.getEventTime(), Instant.now());
+            if (d.isNegative()) d = Duration.ZERO; // relojes no sincronizados
+            lag.record(d);
+            lastLagMillis.set(d.toMillis());
+        }
+    }
+
+    @Override
+    public void start() {
+        subscription = bus.events().subscribe(e -> {
+            try {
+                handle(e);
+            } catch (RuntimeException ex) {
+                log.warn("no se pudo aplicar la invalidación {}: {}", e, ex.toString());
+            }
+        }, err -> log.error("el bus de invalidación terminó con error", err));
+    }
+
+    @Override
+    public void stop() {
+        Disposable s = subscription;
+        if (s != null) s.dispose();
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
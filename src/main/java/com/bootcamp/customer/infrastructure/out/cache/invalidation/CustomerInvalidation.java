@@ -0,0 +1,24 @@
+package com.bootcamp.customer.infrastructure.out.cache.invalidation;
+
+import com.bootcamp.customer.domain.model.Customer;
+import lombok.*;
+
+import java.time.Instant;
+
+// cambio sobre un cliente que las demás réplicas deben reflejar en sus cachés
+@Data @Builder(toBuilder = true) @AllArgsConstructor @NoArgsConstructor
+public class CustomerInvalidation {
+    public enum Kind {
+        UPSERT,  // alta o modificación; customer trae el estado nuevo si se conoce
+        DELETE,
+        RESET    // se perdió el hilo de eventos: vaciar las cachés
+    }
+
+    private Kind kind;
+    private String id;
+    private String documentNumber;
+    private String previousDocumentNumber; // si el cambio movió el documento
+    private Customer customer;
+    private String origin;                 // nodo que publicó el evento (null = Mongo)
+    private Instant eventTime;             // cuándo ocurrió en origen, para medir el retraso
+}
@@ -0,0 +1,9 @@
+package com.bootcamp.customer.infrastructure.out.cache.invalidation;
+
+import reactor.core.publisher.Flux;
+
+// canal por el que las réplicas se avisan de escrituras para mantener sus cachés al día
+public interface CustomerInvalidationBus {
+    void publish(CustomerInvalidation event);   // escrituras locales
+    Flux<CustomerInvalidation> events();        // cambios hechos por otros nodos
+}
@@ -0,0 +1,37 @@
+package com.bootcamp.customer.infrastructure.out.cache.invalidation;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bus en memoria: varias instancias que comparten el mismo sink se comportan como réplicas
+ * distintas (útil en tests); con un solo nodo no entrega nada porque filtra lo propio.
+ */
+public class InMemoryInvalidationBus implements CustomerInvalidationBus {
+
+    private final Sinks.Many<CustomerInvalidation> sink;
+    private final String nodeId;
+
+    public InMemoryInvalidationBus(String nodeId) {
+        this(Sinks.many().multicast().directBestEffort(), nodeId);
+    }
+
+    public InMemoryInvalidationBus(Sinks.Many<CustomerInvalidation> sink, String nodeId) {
+        this.sink = sink;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void publish(CustomerInvalidation event) {
+        sink.emitNext(event.toBuilder().origin(nodeId).eventTime(Instant.now()).build(),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(50)));
+    }
+
+    @Override
+    public Flux<CustomerInvalidation> events() {
+        return sink.asFlux().filter(e -> !nodeId.equals(e.getOrigin()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bootcamp.customer.infrastructure.out.cache.negative;
+
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// construye el filtro al arrancar (en segundo plano) y lo rehace cada rebuildInterval o cuando se pide
+@Slf4j
+public class DocumentNumberFilterLoader implements SmartLifecycle {
+
+    private final MissingDocumentGuard guard;
+    private final CustomerRepositoryPort store;
+    private final Duration rebuildInterval;
+    private volatile Disposable subscription;
+
+    public DocumentNumberFilterLoader(MissingDocumentGuard guard, CustomerRepositoryPort store, Duration rebuildInterval) {
+        this.guard = guard;
+        this.store = store;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    @Override
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, rebuildInterval)
+                .map(tick -> Boolean.TRUE)
+                .mergeWith(guard.rebuildRequests())
+                .onBackpressureLatest()
+                .concatMap(tick -> guard.rebuild(store.findAllDocumentNumbers())
+                        .doOnNext(count -> log.info("filtro de documentos reconstruido con {} entradas", count))
+                        .onErrorResume(e -> {
+                            log.warn("no se pudo reconstruir el filtro de documentos: {}", e.toString());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable s = subscription;
+        if (s != null) s.dispose();
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+}
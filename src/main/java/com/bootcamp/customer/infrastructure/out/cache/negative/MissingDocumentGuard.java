@@ -0,0 +1,96 @@
+package com.bootcamp.customer.infrastructure.out.cache.negative;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responde "este documento no existe" sin ir a la BD.
+ * <p>
+ * Dos fuentes: una caché negativa de TTL corto con los documentos que la BD acaba de
+ * responder como inexistentes, y un filtro de Bloom con todos los documentos existentes. El
+ * filtro solo se consulta cuando está construido y es confiable; si llega un cambio del que no
+ * se sabe el documento ({@link #distrust}) se descarta y se pide reconstruirlo.
+ */
+public class MissingDocumentGuard {
+
+    private final Cache<String, Boolean> missing;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;    // null -> aún no construido o no confiable
+    private volatile BloomFilter building;   // recibe las altas mientras se reconstruye
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile long lastCount;
+    private final Sinks.Many<Boolean> rebuildRequests = Sinks.many().multicast().directBestEffort();
+
+    public MissingDocumentGuard(Duration missingTtl, long missingMaximumSize,
+                                long expectedInsertions, double falsePositiveRate) {
+        this.missing = Caffeine.newBuilder()
+                .expireAfterWrite(missingTtl)
+                .maximumSize(missingMaximumSize)
+                .build();
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean definitelyAbsent(String doc) {
+        if (missing.getIfPresent(doc) != null) return true;
+        BloomFilter f = current;
+        return f != null && !f.mightContain(doc);
+    }
+
+    public void recordMissing(String doc) {
+        missing.put(doc, Boolean.TRUE);
+    }
+
+    // primero building y después current: así una alta concurrente con el cambio de filtro
+    // termina siempre en el filtro que queda instalado
+    public void recordPresent(String doc) {
+        if (doc == null) return;
+        missing.invalidate(doc);
+        BloomFilter b = building;
+        if (b != null) b.put(doc);
+        BloomFilter f = current;
+        if (f != null) f.put(doc);
+    }
+
+    // se perdió (o no se conoce) algún documento nuevo: hasta reconstruir, todo "puede existir"
+    public void distrust() {
+        epoch.incrementAndGet();
+        current = null;
+        missing.invalidateAll();
+        rebuildRequests.tryEmitNext(Boolean.TRUE);
+    }
+
+    /** Reconstruye el filtro a partir de todos los documentos; devuelve cuántos se cargaron. */
+    public Mono<Long> rebuild(Flux<String> documentNumbers) {
+        return Mono.defer(() -> {
+            long startEpoch = epoch.get();
+            BloomFilter next = BloomFilter.create(Math.max(expectedInsertions, 2 * lastCount), falsePositiveRate);
+            building = next;
+            return documentNumbers
+                    .doOnNext(next::put)
+                    .count()
+                    .doOnNext(count -> {
+                        lastCount = count;
+                        // si hubo un distrust durante la carga, el flujo pudo no ver ese documento
+                        if (epoch.get() == startEpoch) current = next;
+                    })
+                    .doFinally(signal -> building = null);
+        });
+    }
+
+    public Flux<Boolean> rebuildRequests() {
+        return rebuildRequests.asFlux();
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+}
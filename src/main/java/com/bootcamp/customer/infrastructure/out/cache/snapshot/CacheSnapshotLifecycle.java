@@ -0,0 +1,152 @@
+package com.bootcamp.customer.infrastructure.out.cache.snapshot;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Arranque en caliente de las cachés por id y por documento.
+ * <p>
+ * Al arrancar carga {@link CustomerCacheSnapshot} (si es reciente) antes de que levante el
+ * servidor web y el listener de invalidaciones: lo que el change stream reproduzca desde el
+ * último resume token corrige lo cargado. Una caché cuyo expire-after-write ya pasó desde que
+ * se tomó el snapshot no se precarga: sus entradas habrían expirado sin reiniciar, y
+ * precargadas vivirían un TTL entero más. Después guarda las {@code maxEntries} entradas más
+ * usadas de cada caché cada {@code interval}, y una última vez al apagarse.
+ */
+@Slf4j
+public class CacheSnapshotLifecycle implements SmartLifecycle {
+
+    private final AsyncCache<String, Customer> byId;
+    private final AsyncCache<String, Customer> byDoc;
+    private final Path file;
+    private final Duration interval;
+    private final Duration maxAge;
+    private final int maxEntries;
+    private final Clock clock;
+    private volatile Disposable subscription;
+
+    public CacheSnapshotLifecycle(AsyncCache<String, Customer> byId, AsyncCache<String, Customer> byDoc,
+                                  Path file, Duration interval, Duration maxAge, int maxEntries, Clock clock) {
+        this.byId = byId;
+        this.byDoc = byDoc;
+        this.file = file;
+        this.interval = interval;
+        this.maxAge = maxAge;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    // antes que el servidor web (y que todo lo de fase por defecto); al apagar, después
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void start() {
+        load();
+        subscription = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::save)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.warn("no se pudo guardar el snapshot de cachés en {}: {}", file, e.toString());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable s = subscription;
+        if (s != null) s.dispose();
+        subscription = null;
+        try {
+            save();
+        } catch (RuntimeException e) {
+            log.warn("no se pudo guardar el snapshot de cachés en {}: {}", file, e.toString());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    // un snapshot ilegible o viejo solo significa arrancar en frío
+    int load() {
+        try {
+            long t0 = System.nanoTime();
+            CustomerCacheSnapshot snapshot = CustomerCacheSnapshot.read(file, maxAge, clock.instant()).orElse(null);
+            if (snapshot == null) {
+                log.info("sin snapshot de cachés utilizable en {}, arranque en frío", file);
+                return 0;
+            }
+            Duration age = Duration.between(snapshot.getTakenAt(), clock.instant());
+            List<Customer> ids = expired(byId, age) ? List.of() : snapshot.getById();
+            List<Customer> docs = expired(byDoc, age) ? List.of() : snapshot.getByDoc();
+            // putIfAbsent: nunca se pisa algo cargado mientras tanto
+            ids.forEach(c -> byId.asMap().putIfAbsent(c.getId(), CompletableFuture.completedFuture(c)));
+            docs.forEach(c -> {
+                if (c.getDocumentNumber() != null) {
+                    byDoc.asMap().putIfAbsent(c.getDocumentNumber(), CompletableFuture.completedFuture(c));
+                }
+            });
+            log.info("cachés precargadas desde {} ({} por id, {} por documento, tomado {}) en {} ms",
+                    file, ids.size(), docs.size(), snapshot.getTakenAt(),
+                    Duration.ofNanos(System.nanoTime() - t0).toMillis());
+            return ids.size() + docs.size();
+        } catch (IOException | RuntimeException e) {
+            log.warn("no se pudo leer el snapshot de cachés {}: {}", file, e.toString());
+            return 0;
+        }
+    }
+
+    // TTL vigente de la caché (puede haber cambiado en caliente); sin expire-after-write no vence
+    private static boolean expired(AsyncCache<String, Customer> cache, Duration age) {
+        return cache.synchronous().policy().expireAfterWrite()
+                .map(expiration -> age.compareTo(expiration.getExpiresAfter()) >= 0)
+                .orElse(false);
+    }
+
+    void save() {
+        CustomerCacheSnapshot snapshot = new CustomerCacheSnapshot(clock.instant(), hottest(byId), hottest(byDoc));
+        try {
+            snapshot.write(file);
+            log.debug("snapshot de cachés guardado en {} ({} por id, {} por documento)",
+                    file, snapshot.getById().size(), snapshot.getByDoc().size());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // orden de uso según la política de desalojo de Caffeine; cargas en curso o vacías no se guardan
+    private List<Customer> hottest(AsyncCache<String, Customer> cache) {
+        Cache<String, Customer> sync = cache.synchronous();
+        Map<String, Customer> hot = sync.policy().eviction()
+                .map(eviction -> eviction.hottest(maxEntries))
+                .orElseGet(sync::asMap);
+        List<Customer> out = new ArrayList<>(Math.min(hot.size(), maxEntries));
+        for (Customer c : hot.values()) {
+            if (out.size() == maxEntries) break;
+            if (c != null) out.add(c);
+        }
+        return out;
+    }
+}
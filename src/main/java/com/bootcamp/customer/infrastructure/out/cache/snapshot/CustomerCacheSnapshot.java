@@ -0,0 +1,194 @@
+package com.bootcamp.customer.infrastructure.out.cache.snapshot;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import lombok.Value;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Contenido de las cachés por id y por documento guardado en un archivo binario, para
+ * arrancar con la caché caliente.
+ * <p>
+ * Formato (big-endian): cabecera {@code MAGIC, FORMAT, takenAt, nombres de CustomerType,
+ * cantidad}, un registro por cliente (un byte con las cachés donde estaba + sus campos) y al
+ * final el CRC32 de todo lo anterior. Un cliente que está en ambas cachés se guarda una vez.
+ * La lectura mapea el archivo en memoria ({@link FileChannel#map}) y lo recorre sin copiarlo.
+ */
+@Value
+public class CustomerCacheSnapshot {
+
+    static final int MAGIC = 0x43435350;   // "CCSP"
+    static final int FORMAT = 1;           // subir al cambiar el formato o los campos de Customer
+
+    private static final int HEADER_AND_CRC = 29;
+    private static final byte IN_BY_ID = 1;
+    private static final byte IN_BY_DOC = 2;
+
+    Instant takenAt;
+    List<Customer> byId;    // del más usado al menos usado
+    List<Customer> byDoc;
+
+    // ---------- escritura ----------
+
+    // se escribe a un temporal y se renombra: un corte a mitad nunca deja un archivo a medias
+    public void write(Path file) throws IOException {
+        Map<Customer, Byte> entries = new LinkedHashMap<>();
+        for (Customer c : byId) entries.merge(c, IN_BY_ID, (a, b) -> (byte) (a | b));
+        for (Customer c : byDoc) entries.merge(c, IN_BY_DOC, (a, b) -> (byte) (a | b));
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream raw = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(raw, crc), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(takenAt.toEpochMilli());
+            CustomerType[] types = CustomerType.values();
+            out.writeByte(types.length);
+            for (CustomerType t : types) writeString(out, t.name());
+            out.writeInt(entries.size());
+            for (Map.Entry<Customer, Byte> e : entries.entrySet()) {
+                out.writeByte(e.getValue());
+                writeCustomer(out, e.getKey());
+            }
+            out.flush();
+            new DataOutputStream(raw).writeLong(crc.getValue());   // fuera del CRC
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeCustomer(DataOutputStream out, Customer c) throws IOException {
+        writeString(out, c.getId());
+        out.writeByte(c.getType() == null ? -1 : c.getType().ordinal());
+        writeString(out, c.getDocumentNumber());
+        writeString(out, c.getFullName());
+        writeString(out, c.getBusinessName());
+        writeString(out, c.getEmail());
+        List<String> phones = c.getPhones();
+        out.writeInt(phones == null ? -1 : phones.size());
+        if (phones != null) {
+            for (String p : phones) writeString(out, p);
+        }
+        out.writeBoolean(c.getVersion() != null);
+        if (c.getVersion() != null) out.writeLong(c.getVersion());
+        out.writeBoolean(c.getLastModified() != null);
+        if (c.getLastModified() != null) {
+            out.writeLong(c.getLastModified().getEpochSecond());
+            out.writeInt(c.getLastModified().getNano());
+        }
+    }
+
+    // longitud + UTF-8; -1 es null
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ---------- lectura ----------
+
+    /**
+     * Lee {@code file}; vacío si no existe, es de otro formato, está dañado o tiene más de
+     * {@code maxAge} (lo cacheado ya no sería confiable).
+     */
+    public static Optional<CustomerCacheSnapshot> read(Path file, Duration maxAge, Instant now) throws IOException {
+        if (!Files.isRegularFile(file)) return Optional.empty();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_AND_CRC || size > Integer.MAX_VALUE) return Optional.empty();
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parse(buf, maxAge, now);
+        }
+    }
+
+    static Optional<CustomerCacheSnapshot> parse(ByteBuffer buf, Duration maxAge, Instant now) {
+        try {
+            int bodyLength = buf.limit() - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate().limit(bodyLength));
+            if (crc.getValue() != buf.getLong(bodyLength)) return Optional.empty();
+
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT) return Optional.empty();
+            Instant takenAt = Instant.ofEpochMilli(buf.getLong());
+            if (takenAt.plus(maxAge).isBefore(now)) return Optional.empty();
+
+            // los tipos se guardan por ordinal: si la enum cambió, el snapshot no sirve
+            CustomerType[] types = CustomerType.values();
+            int typeCount = buf.get();
+            if (typeCount != types.length) return Optional.empty();
+            for (CustomerType t : types) {
+                if (!t.name().equals(readString(buf))) return Optional.empty();
+            }
+
+            int count = buf.getInt();
+            int capacity = Math.max(0, Math.min(count, buf.remaining()));
+            List<Customer> byId = new ArrayList<>(capacity);
+            List<Customer> byDoc = new ArrayList<>(capacity);
+            for (int i = 0; i < count; i++) {
+                byte in = buf.get();
+                Customer c = readCustomer(buf, types);
+                if ((in & IN_BY_ID) != 0) byId.add(c);
+                if ((in & IN_BY_DOC) != 0) byDoc.add(c);
+            }
+            return Optional.of(new CustomerCacheSnapshot(takenAt, byId, byDoc));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Customer readCustomer(ByteBuffer buf, CustomerType[] types) {
+        Customer.CustomerBuilder c = Customer.builder().id(readString(buf));
+        int type = buf.get();
+        c.type(type < 0 ? null : types[type]);
+        c.documentNumber(readString(buf))
+                .fullName(readString(buf))
+                .businessName(readString(buf))
+                .email(readString(buf));
+        int phoneCount = buf.getInt();
+        if (phoneCount >= 0) {
+            List<String> phones = new ArrayList<>(phoneCount);
+            for (int i = 0; i < phoneCount; i++) phones.add(readString(buf));
+            c.phones(phones);
+        }
+        if (buf.get() != 0) c.version(buf.getLong());
+        if (buf.get() != 0) c.lastModified(Instant.ofEpochSecond(buf.getLong(), buf.getInt()));
+        return c.build();
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) return null;
+        if (length > buf.remaining()) throw new IndexOutOfBoundsException("cadena de " + length + " bytes");
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
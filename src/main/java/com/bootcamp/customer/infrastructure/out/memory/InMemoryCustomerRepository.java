@@ -0,0 +1,310 @@
+package com.bootcamp.customer.infrastructure.out.memory;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.config.RepositoryConfig;
+import com.bootcamp.customer.domain.model.BulkInsertResult;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.model.SearchKeys;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Almacén en memoria con la misma semántica que el adaptador de Mongo (índice único de
+ * documentNumber, @Version, patch que devuelve la imagen previa) para pruebas de carga de la
+ * capa web y de servicio sin infraestructura: perfil {@code inmemory}.
+ * <p>
+ * Las lecturas no toman locks (mapas concurrentes ordenados por id, como el _id de Mongo);
+ * las escrituras se serializan para mantener consistentes los índices. Cada operación puede
+ * llevar latencia, jitter y errores sintéticos ({@code customer.in-memory.*}).
+ */
+@Component
+@Profile("inmemory")
+@Qualifier(RepositoryConfig.STORE)
+public class InMemoryCustomerRepository implements CustomerRepositoryPort {
+
+    private final ConcurrentSkipListMap<String, Customer> byId = new ConcurrentSkipListMap<>();
+    private final Map<String, String> idByDoc = new ConcurrentHashMap<>();          // índice único
+    private final Map<CustomerType, ConcurrentSkipListSet<String>> idsByType = new EnumMap<>(CustomerType.class);
+    private final Object writeLock = new Object();
+
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+
+    public InMemoryCustomerRepository(CustomerProperties props) {
+        CustomerProperties.InMemory cfg = props.getInMemory();
+        this.latency = cfg.getLatency();
+        this.jitter = cfg.getJitter();
+        this.errorRate = cfg.getErrorRate();
+        for (CustomerType t : CustomerType.values()) idsByType.put(t, new ConcurrentSkipListSet<>());
+        Instant now = Instant.now();
+        for (int i = 0; i < cfg.getSeedCustomers(); i++) {
+            Customer c = seed(i);
+            c.setLastModified(now);
+            put(c);
+        }
+    }
+
+    // ids y documentos deterministas: el mismo seed da los mismos datos en cada corrida
+    static Customer seed(int i) {
+        boolean personal = i % 2 == 0;
+        return Customer.builder()
+                .id(String.format("%024x", i))
+                .type(personal ? CustomerType.PERSONAL : CustomerType.ENTERPRISE)
+                .documentNumber(String.format("%08d", i))
+                .fullName(personal ? "Cliente " + i : null)
+                .businessName(personal ? null : "Empresa " + i)
+                .email("cliente" + i + "@correo.com")
+                .phones(List.of(String.valueOf(900_000_000 + i)))
+                .version(0L)
+                .build();
+    }
+
+    // ---------- latencia y errores sintéticos ----------
+
+    private <T> Mono<T> io(Mono<T> op) {
+        return Mono.defer(() -> {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            if (errorRate > 0 && rnd.nextDouble() < errorRate) {
+                return Mono.error(new DataAccessResourceFailureException("fallo sintético del almacén en memoria"));
+            }
+            long nanos = latency.toNanos() + (jitter.isZero() ? 0 : rnd.nextLong(jitter.toNanos() + 1));
+            return nanos == 0 ? op : Mono.delay(Duration.ofNanos(nanos)).then(op);
+        });
+    }
+
+    private <T> Flux<T> io(Flux<T> op) {
+        return io(Mono.just(Boolean.TRUE)).thenMany(op);
+    }
+
+    // los llamadores modifican lo que reciben (p. ej. applyTo): nunca se entrega el objeto guardado
+    private static Customer copy(Customer c) {
+        if (c == null) return null;
+        Customer out = c.toBuilder().build();
+        if (c.getPhones() != null) out.setPhones(List.copyOf(c.getPhones()));
+        return out;
+    }
+
+    // ---------- lecturas ----------
+
+    @Override public Mono<Customer> findById(String id) {
+        return io(Mono.fromSupplier(() -> copy(byId.get(id))));
+    }
+
+    @Override public Mono<Customer> findByDocumentNumber(String doc) {
+        return io(Mono.fromSupplier(() -> {
+            String id = idByDoc.get(doc);
+            return id == null ? null : copy(byId.get(id));
+        }));
+    }
+
+    @Override public Flux<Customer> findAllById(Collection<String> ids) {
+        return io(Flux.fromIterable(Set.copyOf(ids)).mapNotNull(byId::get).map(InMemoryCustomerRepository::copy));
+    }
+
+    @Override public Flux<Customer> findAllByDocumentNumber(Collection<String> docs) {
+        return io(Flux.fromIterable(Set.copyOf(docs)).mapNotNull(idByDoc::get).mapNotNull(byId::get)
+                .map(InMemoryCustomerRepository::copy));
+    }
+
+    @Override public Flux<Customer> findAll() {
+        return io(Flux.fromIterable(byId.values()).map(InMemoryCustomerRepository::copy));
+    }
+
+    @Override public Flux<Customer> findByType(CustomerType type) {
+        return io(Flux.fromIterable(idsByType.get(type)).mapNotNull(byId::get).map(InMemoryCustomerRepository::copy));
+    }
+
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit) {
+        return io(Flux.defer(() -> {
+            Collection<String> ids = type == null ? byId.keySet() : idsByType.get(type);
+            if (afterId != null) {
+                ids = type == null ? byId.tailMap(afterId, false).keySet() : idsByType.get(type).tailSet(afterId, false);
+            }
+            return Flux.fromIterable(ids).mapNotNull(byId::get).take(limit).map(InMemoryCustomerRepository::copy);
+        }));
+    }
+
+    // ---------- búsquedas y estadísticas ----------
+
+    // sin índices secundarios: recorre por id desde el cursor, que ya es el orden de la respuesta
+    @Override public Flux<Customer> findByEmail(String email, String afterId, int limit) {
+        return search(c -> email.equals(SearchKeys.email(c.getEmail())), afterId, limit);
+    }
+
+    @Override public Flux<Customer> findByPhone(String phone, String afterId, int limit) {
+        return search(c -> c.getPhones() != null && c.getPhones().stream().map(SearchKeys::phone).anyMatch(phone::equals),
+                afterId, limit);
+    }
+
+    // mismo orden que en Mongo (SearchKeys.byNameMatch); acá se ordena lo que coincide
+    @Override public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit) {
+        return io(Flux.defer(() -> Flux.fromIterable(byId.values().stream()
+                .filter(c -> {
+                    String key = SearchKeys.nameMatch(c, prefix);
+                    if (key == null) return false;
+                    int cmp = afterKey == null ? 1 : key.compareTo(afterKey);
+                    return cmp > 0 || cmp == 0 && c.getId().compareTo(afterId) > 0;
+                })
+                .sorted(SearchKeys.byNameMatch(prefix))
+                .limit(limit)
+                .map(InMemoryCustomerRepository::copy)
+                .toList())));
+    }
+
+    private Flux<Customer> search(Predicate<Customer> matches, String afterId, int limit) {
+        return io(Flux.defer(() -> Flux.fromIterable((afterId == null ? byId : byId.tailMap(afterId, false)).values())
+                .filter(matches)
+                .take(limit)
+                .map(InMemoryCustomerRepository::copy)));
+    }
+
+    @Override public Mono<Map<CustomerShape, Long>> countByShape() {
+        return io(Mono.fromSupplier(() -> byId.values().stream()
+                .collect(Collectors.groupingBy(CustomerShape::of, Collectors.counting()))));
+    }
+
+    @Override public Flux<String> findExistingDocumentNumbers(Collection<String> docs) {
+        return io(Flux.fromIterable(Set.copyOf(docs)).filter(idByDoc::containsKey));
+    }
+
+    @Override public Flux<String> findAllDocumentNumbers() {
+        return io(Flux.fromIterable(idByDoc.keySet()));
+    }
+
+    // ---------- escrituras ----------
+
+    @Override public Mono<Customer> insert(Customer customer) {
+        return io(Mono.fromCallable(() -> {
+            Customer c = copy(customer);
+            if (c.getId() == null) c.setId(new ObjectId().toHexString());
+            if (c.getVersion() == null) c.setVersion(0L);
+            c.setLastModified(Instant.now());
+            synchronized (writeLock) {
+                if (byId.containsKey(c.getId()) || idByDoc.containsKey(c.getDocumentNumber())) {
+                    throw new DuplicateKeyException("documentNumber duplicado: " + c.getDocumentNumber());
+                }
+                put(c);
+            }
+            return copy(c);
+        }));
+    }
+
+    // como Spring Data con @Version: sin versión es un alta, con versión reemplaza si coincide
+    @Override public Mono<Customer> save(Customer customer) {
+        if (customer.getVersion() == null) return insert(customer);
+        return io(Mono.fromCallable(() -> {
+            synchronized (writeLock) {
+                Customer current = byId.get(customer.getId());
+                if (current == null || !customer.getVersion().equals(current.getVersion())) {
+                    throw new OptimisticLockingFailureException("version conflict: " + customer.getId());
+                }
+                Customer next = copy(customer);
+                next.setVersion(current.getVersion() + 1);
+                next.setLastModified(Instant.now());
+                replace(current, next);
+                return copy(next);
+            }
+        }));
+    }
+
+    @Override public Mono<Customer> patch(String id, CustomerPatch patch) {
+        return io(Mono.fromCallable(() -> {
+            synchronized (writeLock) {
+                Customer current = byId.get(id);
+                if (current == null) return null;
+                Long expected = patch.getExpectedVersion();
+                long version = current.getVersion() == null ? 0L : current.getVersion();
+                if (expected != null && expected != version) {
+                    throw new OptimisticLockingFailureException("version conflict: " + id);
+                }
+                Customer next = patch.applyTo(copy(current));
+                replace(current, next);
+                return copy(current); // imagen previa, como findAndModify con returnNew(false)
+            }
+        }));
+    }
+
+    @Override public Mono<BulkInsertResult> insertAll(List<Customer> customers) {
+        return io(Mono.fromCallable(() -> {
+            Map<Integer, Customer> inserted = new HashMap<>();
+            Set<Integer> duplicated = new HashSet<>();
+            synchronized (writeLock) {
+                for (int i = 0; i < customers.size(); i++) {
+                    Customer c = copy(customers.get(i));
+                    if (c.getId() == null) c.setId(new ObjectId().toHexString());
+                    if (c.getVersion() == null) c.setVersion(0L);
+                    c.setLastModified(Instant.now());
+                    if (byId.containsKey(c.getId()) || idByDoc.containsKey(c.getDocumentNumber())) {
+                        duplicated.add(i);
+                    } else {
+                        put(c);
+                        inserted.put(i, copy(c));
+                    }
+                }
+            }
+            return new BulkInsertResult(inserted, duplicated, Map.of());
+        }));
+    }
+
+    @Override public Mono<Void> deleteById(String id) {
+        return findAndDeleteById(id).then();
+    }
+
+    @Override public Mono<Customer> findAndDeleteById(String id) {
+        return io(Mono.fromSupplier(() -> {
+            synchronized (writeLock) {
+                Customer removed = byId.remove(id);
+                if (removed == null) return null;
+                idByDoc.remove(removed.getDocumentNumber());
+                if (removed.getType() != null) idsByType.get(removed.getType()).remove(id);
+                return copy(removed);
+            }
+        }));
+    }
+
+    // ---------- índices (siempre bajo writeLock, salvo en el constructor) ----------
+
+    private void put(Customer c) {
+        byId.put(c.getId(), c);
+        if (c.getDocumentNumber() != null) idByDoc.put(c.getDocumentNumber(), c.getId());
+        if (c.getType() != null) idsByType.get(c.getType()).add(c.getId());
+    }
+
+    private void replace(Customer current, Customer next) {
+        String owner = next.getDocumentNumber() == null ? null : idByDoc.get(next.getDocumentNumber());
+        if (owner != null && !owner.equals(current.getId())) {
+            throw new DuplicateKeyException("documentNumber duplicado: " + next.getDocumentNumber());
+        }
+        if (current.getDocumentNumber() != null) idByDoc.remove(current.getDocumentNumber());
+        if (current.getType() != null) idsByType.get(current.getType()).remove(current.getId());
+        put(next);
+    }
+}
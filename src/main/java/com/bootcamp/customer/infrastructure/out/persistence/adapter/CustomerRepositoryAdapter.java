@@ -1,35 +1,120 @@
 package com.bootcamp.customer.infrastructure.out.persistence.adapter;
 
+import com.bootcamp.customer.config.CustomerProperties;
 import com.bootcamp.customer.domain.model.*;
 import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
 import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+import com.bootcamp.customer.infrastructure.out.persistence.mapper.CustomerDocumentMapper;
 import com.bootcamp.customer.infrastructure.out.persistence.repository.ReactiveCustomerMongoRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import com.bootcamp.customer.config.RepositoryConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
 @Component
+@Profile("!inmemory")
+@Qualifier(RepositoryConfig.STORE)
 @RequiredArgsConstructor
 public class CustomerRepositoryAdapter implements CustomerRepositoryPort {
 
     private final ReactiveCustomerMongoRepository repo;
+    private final ReactiveMongoTemplate template;
+    private final CustomerProperties props;
+
+    private static final int DUPLICATE_KEY = 11000;
+    public static final String FULL_NAME_KEY = "fullNameKey";
+    public static final String BUSINESS_NAME_KEY = "businessNameKey";
+    public static final String EMAIL_KEY = "emailKey";
+    public static final String PHONE_KEYS = "phoneKeys";
+    private static final Pattern LITERAL = Pattern.compile("[^\\p{L}\\p{N} ]");  // se escapa en la regex
 
     private Customer toDomain(CustomerDocument d) {
-        return Customer.builder()
-                .id(d.getId()).type(d.getType()).documentNumber(d.getDocumentNumber())
-                .fullName(d.getFullName()).businessName(d.getBusinessName())
-                .email(d.getEmail()).phones(d.getPhones()).build();
+        return CustomerDocumentMapper.toDomain(d);
     }
     private CustomerDocument toDoc(Customer c) {
-        return CustomerDocument.builder()
-                .id(c.getId()).type(c.getType()).documentNumber(c.getDocumentNumber())
-                .fullName(c.getFullName()).businessName(c.getBusinessName())
-                .email(c.getEmail()).phones(c.getPhones()).build();
+        return CustomerDocumentMapper.toDoc(c);
     }
 
+    // los listados completos van por cursor con batchSize acotado: el driver pide más
+    // documentos según la demanda del suscriptor (backpressure) en lugar de traerlo todo
     @Override public Flux<Customer> findAll() {
-        return repo.findAll().map(this::toDomain);
+        return findAll(null);
+    }
+
+    @Override public Flux<Customer> findAll(CustomerFields fields) {
+        return template.find(cursorQuery(projected(new Query(), fields)), CustomerDocument.class).map(this::toDomain);
+    }
+
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit){
+        return findPage(type, afterId, limit, null);
+    }
+
+    // con type + fields dentro de id/type/documentNumber la consulta es cubierta por el índice
+    // type_id_documentNumber: Mongo responde desde el índice sin leer los documentos
+    @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit, CustomerFields fields){
+        Query q = new Query();
+        if (type != null) q.addCriteria(Criteria.where("type").is(type));
+        if (afterId != null) q.addCriteria(Criteria.where("id").gt(afterId));
+        q.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        return template.find(cursorQuery(projected(q, fields)), CustomerDocument.class).map(this::toDomain);
+    }
+
+    private Query cursorQuery(Query q) {
+        return q.cursorBatchSize(props.getListing().getCursorBatchSize());
+    }
+
+    // solo viajan los campos pedidos (el _id siempre); los que faltan quedan en null
+    private static Query projected(Query q, CustomerFields fields) {
+        if (fields != null) fields.names().forEach(q.fields()::include);
+        return q;
+    }
+
+    // las lecturas puntuales traen además version y lastModified para la ETag
+    private static Query projectedLookup(Query q, CustomerFields fields) {
+        projected(q, fields);
+        q.fields().include("version").include("lastModified");
+        return q;
+    }
+
+    @Override public Mono<Customer> findById(String id, CustomerFields fields){
+        if (fields == null) return findById(id);
+        return template.findOne(projectedLookup(new Query(Criteria.where("id").is(id)), fields), CustomerDocument.class)
+                .map(this::toDomain);
+    }
+
+    @Override public Mono<Customer> findByDocumentNumber(String doc, CustomerFields fields){
+        if (fields == null) return findByDocumentNumber(doc);
+        return template.findOne(projectedLookup(new Query(Criteria.where("documentNumber").is(doc)), fields),
+                        CustomerDocument.class)
+                .map(this::toDomain);
     }
 
 
@@ -40,14 +125,208 @@ public class CustomerRepositoryAdapter implements CustomerRepositoryPort {
     @Override public Mono<Customer> findByDocumentNumber(String doc){
         return repo.findByDocumentNumber(doc).map(this::toDomain);
     }
+    @Override public Flux<Customer> findAllById(Collection<String> ids){
+        if (ids.isEmpty()) return Flux.empty();
+        return repo.findAllById(ids).map(this::toDomain);
+    }
+    @Override public Flux<Customer> findAllByDocumentNumber(Collection<String> docs){
+        if (docs.isEmpty()) return Flux.empty();
+        return repo.findByDocumentNumberIn(docs).map(this::toDomain);
+    }
     @Override public Flux<Customer> findByType(CustomerType t){
-        return repo.findByType(t).map(this::toDomain);
+        return findByType(t, null);
+    }
+    @Override public Flux<Customer> findByType(CustomerType t, CustomerFields fields){
+        return template.find(cursorQuery(projected(new Query(Criteria.where("type").is(t)), fields)), CustomerDocument.class)
+                .map(this::toDomain);
     }
 
     @Override public Mono<Customer> save(Customer c){
-        return repo.save(toDoc(c)).map(this::toDomain);
+        return repo.save(stamped(c)).map(this::toDomain);
+    }
+    @Override public Mono<Customer> insert(Customer c){
+        return repo.insert(stamped(c)).map(this::toDomain);
+    }
+
+    // lastModified (cabecera Last-Modified) se fija en cada escritura
+    private CustomerDocument stamped(Customer c) {
+        CustomerDocument d = toDoc(c);
+        d.setLastModified(Instant.now());
+        return d;
+    }
+    @Override public Flux<String> findExistingDocumentNumbers(Collection<String> docs){
+        if (docs.isEmpty()) return Flux.empty();
+        // solo documentNumber y sin _id: la consulta se responde desde el índice único
+        Query q = new Query(Criteria.where("documentNumber").in(docs));
+        q.fields().include("documentNumber").exclude("_id");
+        return template.find(q, CustomerDocument.class).map(CustomerDocument::getDocumentNumber);
+    }
+
+    @Override public Flux<String> findAllDocumentNumbers(){
+        Query q = cursorQuery(new Query());
+        q.fields().include("documentNumber").exclude("_id");
+        return template.find(q, CustomerDocument.class).map(CustomerDocument::getDocumentNumber);
+    }
+
+    // insertMany con ordered(false): un duplicado no detiene el resto del lote y el driver
+    // informa el índice de cada fila fallida. Los ids se generan aquí para devolverlos sin releer
+    @Override public Mono<BulkInsertResult> insertAll(List<Customer> customers){
+        if (customers.isEmpty()) return Mono.just(new BulkInsertResult(Map.of(), Set.of(), Map.of()));
+
+        List<CustomerDocument> docs = new ArrayList<>(customers.size());
+        List<Document> bson = new ArrayList<>(customers.size());
+        for (Customer c : customers) {
+            CustomerDocument d = stamped(c);
+            if (d.getId() == null) d.setId(new ObjectId().toHexString());
+            if (d.getVersion() == null) d.setVersion(0L);
+            Document b = new Document();
+            template.getConverter().write(d, b);
+            docs.add(d);
+            bson.add(b);
+        }
+
+        return template.getCollection(template.getCollectionName(CustomerDocument.class))
+                .flatMap(col -> Mono.from(col.insertMany(bson, new InsertManyOptions().ordered(false))))
+                .map(r -> toBulkResult(docs, List.of()))
+                .onErrorResume(MongoBulkWriteException.class, e -> Mono.just(toBulkResult(docs, e.getWriteErrors())));
+    }
+
+    private BulkInsertResult toBulkResult(List<CustomerDocument> docs, List<BulkWriteError> errors) {
+        Set<Integer> duplicated = new HashSet<>();
+        Map<Integer, String> failed = new HashMap<>();
+        for (BulkWriteError err : errors) {
+            if (err.getCode() == DUPLICATE_KEY) duplicated.add(err.getIndex());
+            else failed.put(err.getIndex(), err.getMessage());
+        }
+        Map<Integer, Customer> inserted = new HashMap<>();
+        for (int i = 0; i < docs.size(); i++) {
+            if (!duplicated.contains(i) && !failed.containsKey(i)) inserted.put(i, toDomain(docs.get(i)));
+        }
+        return new BulkInsertResult(inserted, duplicated, failed);
     }
+
+    // solo viajan los campos modificados; returnNew(false) devuelve la imagen previa para
+    // que el llamador conozca el documentNumber anterior sin una lectura adicional
+    @Override public Mono<Customer> patch(String id, CustomerPatch patch){
+        Criteria criteria = Criteria.where("id").is(id);
+        Long expected = patch.getExpectedVersion();
+        if (expected != null) {
+            // los documentos anteriores a @Version no tienen el campo: equivalen a la versión 0
+            criteria = expected == 0L
+                    ? criteria.orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))
+                    : criteria.and("version").is(expected);
+        }
+        Update update = new Update();
+        patch.getSet().forEach(update::set);
+        patch.getUnset().forEach(update::unset);
+        searchKeys(patch, update);
+        update.inc("version", 1);
+        if (patch.getModifiedAt() != null) update.set("lastModified", patch.getModifiedAt());
+
+        Mono<Customer> previous = template.findAndModify(new Query(criteria), update,
+                        FindAndModifyOptions.options().returnNew(false), CustomerDocument.class)
+                .map(this::toDomain);
+        if (expected == null) return previous;
+        return previous.switchIfEmpty(Mono.defer(() -> repo.existsById(id)
+                .flatMap(exists -> exists
+                        ? Mono.error(new OptimisticLockingFailureException("version conflict: " + id))
+                        : Mono.empty())));
+    }
+
+    // los campos *Key siguen a su campo en el mismo findAndModify
+    @SuppressWarnings("unchecked")
+    private static void searchKeys(CustomerPatch patch, Update update) {
+        Map.<String, Map.Entry<String, Function<Object, Object>>>of(
+                        CustomerPatch.FULL_NAME, Map.entry(FULL_NAME_KEY, v -> SearchKeys.name((String) v)),
+                        CustomerPatch.BUSINESS_NAME, Map.entry(BUSINESS_NAME_KEY, v -> SearchKeys.name((String) v)),
+                        CustomerPatch.EMAIL, Map.entry(EMAIL_KEY, v -> SearchKeys.email((String) v)),
+                        CustomerPatch.PHONES, Map.entry(PHONE_KEYS, v -> SearchKeys.phones((List<String>) v)))
+                .forEach((field, key) -> {
+                    Object value = patch.getSet().containsKey(field) ? key.getValue().apply(patch.getSet().get(field)) : null;
+                    if (value != null) {
+                        update.set(key.getKey(), value);
+                    } else if (patch.getSet().containsKey(field) || patch.getUnset().contains(field)) {
+                        update.unset(key.getKey());
+                    }
+                });
+    }
+
+    // ---------- estadísticas ----------
+
+    // un $group por combinación tipo/email/teléfonos (a lo sumo una docena de grupos): Mongo
+    // recorre la colección una vez y solo viajan los totales
+    @Override public Mono<Map<CustomerShape, Long>> countByShape(){
+        Document shape = new Document("type", "$type")
+                .append("email", new Document("$gt", Arrays.asList("$email", "")))
+                .append("phones", new Document("$gt", Arrays.asList(
+                        new Document("$size", new Document("$ifNull", Arrays.asList("$phones", List.of()))), 0)));
+        List<Document> pipeline = List.of(new Document("$group",
+                new Document("_id", shape).append("count", new Document("$sum", 1))));
+        return template.getCollection(template.getCollectionName(CustomerDocument.class))
+                .flatMapMany(col -> Flux.from(col.aggregate(pipeline).allowDiskUse(true)))
+                .collectMap(CustomerRepositoryAdapter::shapeOf, group -> ((Number) group.get("count")).longValue());
+    }
+
+    private static CustomerShape shapeOf(Document group) {
+        Document id = group.get("_id", Document.class);
+        String type = id.getString("type");
+        return new CustomerShape(type == null ? null : CustomerType.valueOf(type),
+                id.getBoolean("email", false), id.getBoolean("phones", false));
+    }
+
+    // ---------- búsquedas por índice ----------
+
+    // sobre las claves normalizadas, no sobre email/phones tal como se guardaron
+    @Override public Flux<Customer> findByEmail(String email, String afterId, int limit){
+        return search(Criteria.where(EMAIL_KEY).is(email), afterId, limit);
+    }
+
+    @Override public Flux<Customer> findByPhone(String phone, String afterId, int limit){
+        return search(Criteria.where(PHONE_KEYS).is(phone), afterId, limit);
+    }
+
+    // una consulta por clave, cada una un rango de su índice (clave, _id) ya en el orden pedido, y
+    // mezcla ordenada: ninguna ordena en memoria ni recorre más que limit entradas. Un cliente que
+    // coincide por los dos nombres sale solo de la consulta de su menor clave (SearchKeys.nameMatch)
+    @Override public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit){
+        String regex = "^" + LITERAL.matcher(prefix).replaceAll("\\\\$0");
+        return Flux.mergeComparing(SearchKeys.byNameMatch(prefix),
+                        byNameKey(FULL_NAME_KEY, regex, afterKey, afterId, limit)
+                                .filter(c -> matchedByFullName(c, prefix)),
+                        byNameKey(BUSINESS_NAME_KEY, regex, afterKey, afterId, limit)
+                                .filter(c -> !matchedByFullName(c, prefix)))
+                .take(limit);
+    }
+
+    private static boolean matchedByFullName(Customer c, String prefix) {
+        return Objects.equals(SearchKeys.nameMatch(c, prefix), SearchKeys.name(c.getFullName()));
+    }
+
+    // regex anclada y literal: Mongo la convierte en un rango del índice; el cursor sigue después
+    // de (afterKey, afterId) en ese mismo orden
+    private Flux<Customer> byNameKey(String key, String regex, String afterKey, String afterId, int limit) {
+        Criteria criteria = Criteria.where(key).regex(regex);
+        if (afterKey != null) {
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where(key).gt(afterKey),
+                    Criteria.where(key).is(afterKey).and("id").gt(afterId)));
+        }
+        Query q = new Query(criteria).with(Sort.by(Sort.Order.asc(key), Sort.Order.asc("id"))).limit(limit);
+        return template.find(q, CustomerDocument.class).map(this::toDomain);
+    }
+
+    private Flux<Customer> search(Criteria criteria, String afterId, int limit) {
+        Query q = new Query(criteria);
+        if (afterId != null) q.addCriteria(Criteria.where("id").gt(afterId));
+        q.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        return template.find(q, CustomerDocument.class).map(this::toDomain);
+    }
+
     @Override public Mono<Void> deleteById(String id){
         return repo.deleteById(id);
     }
+    @Override public Mono<Customer> findAndDeleteById(String id){
+        return template.findAndRemove(new Query(Criteria.where("id").is(id)), CustomerDocument.class)
+                .map(this::toDomain);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.bootcamp.customer.infrastructure.out.persistence.changestream;
+
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidation;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidationBus;
+import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+import com.bootcamp.customer.infrastructure.out.persistence.mapper.CustomerDocumentMapper;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sigue el change stream de "customers": cada réplica ve todas las escrituras (también las de
+ * otros nodos o de procesos externos) sin que nadie tenga que publicarlas. El resume token se
+ * guarda por nodo en "cache_resume_tokens" para retomar tras un reinicio; si Mongo ya no tiene
+ * ese punto del oplog se emite RESET y se vuelve a empezar desde ahora.
+ */
+@Slf4j
+public class MongoChangeStreamInvalidationBus implements CustomerInvalidationBus {
+
+    static final String TOKENS = "cache_resume_tokens";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final ReactiveMongoTemplate template;
+    private final String nodeId;
+    private final Duration tokenSaveInterval;
+    private final AtomicReference<BsonValue> lastToken = new AtomicReference<>();
+
+    public MongoChangeStreamInvalidationBus(ReactiveMongoTemplate template, String nodeId, Duration tokenSaveInterval) {
+        this.template = template;
+        this.nodeId = nodeId;
+        this.tokenSaveInterval = tokenSaveInterval;
+    }
+
+    @Override
+    public void publish(CustomerInvalidation event) {
+        // nada que hacer: la escritura en Mongo ya aparece en el change stream de todos los nodos
+    }
+
+    @Override
+    public Flux<CustomerInvalidation> events() {
+        Flux<CustomerInvalidation> stream = Flux.defer(() -> loadToken()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMapMany(token -> watch(token.orElse(null))))
+                .onErrorResume(this::historyLost, e -> {
+                    log.warn("resume token inválido para {}, se reinicia el change stream: {}", nodeId, e.getMessage());
+                    lastToken.set(null);
+                    return deleteToken()
+                            .thenMany(Flux.just(CustomerInvalidation.builder().kind(CustomerInvalidation.Kind.RESET).build()))
+                            .concatWith(watch(null));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(s -> log.warn("change stream de customers interrumpido, reintentando: {}",
+                                s.failure().toString())));
+
+        // el token se guarda cada tokenSaveInterval, no por evento
+        Flux<CustomerInvalidation> checkpoints = Flux.interval(tokenSaveInterval)
+                .concatMap(t -> saveToken())
+                .thenMany(Flux.empty());
+        return stream.mergeWith(checkpoints);
+    }
+
+    private Flux<CustomerInvalidation> watch(BsonValue resumeToken) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                // requiere changeStreamPreAndPostImages en la colección; si no está, llega null
+                .fullDocumentBeforeChangeLookup(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        if (resumeToken != null) options.resumeAfter(resumeToken);
+
+        String collection = template.getCollectionName(CustomerDocument.class);
+        return template.changeStream(collection, options.build(), CustomerDocument.class)
+                .doOnNext(e -> lastToken.set(e.getResumeToken()))
+                .mapNotNull(this::toInvalidation);
+    }
+
+    private CustomerInvalidation toInvalidation(ChangeStreamEvent<CustomerDocument> event) {
+        if (event.getOperationType() == null) return null;
+        ChangeStreamDocument<Document> raw = event.getRaw();
+        String id = raw == null || raw.getDocumentKey() == null ? null : idOf(raw.getDocumentKey().get("_id"));
+        CustomerDocument before = event.getBodyBeforeChange();
+        CustomerDocument after = event.getBody();
+        Instant time = event.getTimestamp();
+
+        return switch (event.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> CustomerInvalidation.builder()
+                    .kind(CustomerInvalidation.Kind.UPSERT)
+                    .id(id)
+                    .customer(after == null ? null : CustomerDocumentMapper.toDomain(after))
+                    .documentNumber(after == null ? null : after.getDocumentNumber())
+                    .previousDocumentNumber(before == null ? null : before.getDocumentNumber())
+                    .eventTime(time)
+                    .build();
+            case DELETE -> CustomerInvalidation.builder()
+                    .kind(CustomerInvalidation.Kind.DELETE)
+                    .id(id)
+                    .documentNumber(before == null ? null : before.getDocumentNumber())
+                    .eventTime(time)
+                    .build();
+            // drop/rename de la colección: lo cacheado ya no vale
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> CustomerInvalidation.builder()
+                    .kind(CustomerInvalidation.Kind.RESET).eventTime(time).build();
+            default -> null;
+        };
+    }
+
+    private static String idOf(BsonValue v) {
+        if (v == null) return null;
+        if (v.isObjectId()) return v.asObjectId().getValue().toHexString();
+        if (v.isString()) return v.asString().getValue();
+        return v.toString();
+    }
+
+    private boolean historyLost(Throwable e) {
+        return e instanceof MongoCommandException mce && mce.getErrorCode() == CHANGE_STREAM_HISTORY_LOST
+                || e.getCause() instanceof MongoCommandException cause && cause.getErrorCode() == CHANGE_STREAM_HISTORY_LOST;
+    }
+
+    // ---------- persistencia del resume token ----------
+
+    private Mono<BsonDocument> loadToken() {
+        return template.getCollection(TOKENS)
+                .flatMap(col -> Mono.from(col.find(new Document("_id", nodeId)).first()))
+                .mapNotNull(d -> d.getString("token"))
+                .map(data -> new BsonDocument("_data", new BsonString(data)));
+    }
+
+    private Mono<Void> saveToken() {
+        BsonValue token = lastToken.get();
+        if (token == null || !token.isDocument() || !token.asDocument().containsKey("_data")) return Mono.empty();
+        String data = token.asDocument().getString("_data").getValue();
+        Document doc = new Document("_id", nodeId).append("token", data).append("updatedAt", new Date());
+        return template.getCollection(TOKENS)
+                .flatMap(col -> Mono.from(col.replaceOne(new Document("_id", nodeId), doc, new ReplaceOptions().upsert(true))))
+                .onErrorResume(e -> {
+                    log.warn("no se pudo guardar el resume token: {}", e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> deleteToken() {
+        return template.getCollection(TOKENS)
+                .flatMap(col -> Mono.from(col.deleteOne(new Document("_id", nodeId))))
+                .then();
+    }
+}
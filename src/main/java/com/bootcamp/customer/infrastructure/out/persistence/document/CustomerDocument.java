@@ -3,12 +3,28 @@ package com.bootcamp.customer.infrastructure.out.persistence.document;
 import com.bootcamp.customer.domain.model.CustomerType;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
 import java.util.List;
 
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 @Document("customers")
+// paginación keyset filtrando por type; con documentNumber al final el índice también cubre las
+// lecturas que solo piden id, type y documentNumber
+// búsquedas exactas paginadas por _id (emailKey_id, phoneKeys_id): igualdad + rango/orden de _id
+// sobre el mismo índice; phoneKeys es multikey. Prefijo de nombre: la regex anclada es un rango
+// de fullNameKey_id / businessNameKey_id, recorrido en orden (clave, _id) desde el cursor
+@CompoundIndexes({
+        @CompoundIndex(name = "type_id_documentNumber", def = "{'type': 1, '_id': 1, 'documentNumber': 1}"),
+        @CompoundIndex(name = "emailKey_id", def = "{'emailKey': 1, '_id': 1}"),
+        @CompoundIndex(name = "phoneKeys_id", def = "{'phoneKeys': 1, '_id': 1}"),
+        @CompoundIndex(name = "fullNameKey_id", def = "{'fullNameKey': 1, '_id': 1}"),
+        @CompoundIndex(name = "businessNameKey_id", def = "{'businessNameKey': 1, '_id': 1}")
+})
 public class CustomerDocument {
     @Id private String id;
     private CustomerType type;
@@ -18,4 +34,13 @@ public class CustomerDocument {
     private String businessName;
     private String email;
     private List<String> phones;
+    // SearchKeys.name de fullName / businessName: búsqueda por prefijo sin mayúsculas ni tildes
+    private String fullNameKey;
+    private String businessNameKey;
+    // SearchKeys.email / SearchKeys.phone: no dependen de cómo se guardó el valor original
+    private String emailKey;
+    private List<String> phoneKeys;
+    @Version
+    private Long version;
+    private Instant lastModified;
 }
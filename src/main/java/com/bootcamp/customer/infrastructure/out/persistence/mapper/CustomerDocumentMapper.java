@@ -0,0 +1,26 @@
+package com.bootcamp.customer.infrastructure.out.persistence.mapper;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.SearchKeys;
+import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+
+public class CustomerDocumentMapper {
+    public static Customer toDomain(CustomerDocument d){
+        return Customer.builder()
+                .id(d.getId()).type(d.getType()).documentNumber(d.getDocumentNumber())
+                .fullName(d.getFullName()).businessName(d.getBusinessName())
+                .email(d.getEmail()).phones(d.getPhones()).version(d.getVersion())
+                .lastModified(d.getLastModified()).build();
+    }
+    public static CustomerDocument toDoc(Customer c){
+        return CustomerDocument.builder()
+                .id(c.getId()).type(c.getType()).documentNumber(c.getDocumentNumber())
+                .fullName(c.getFullName()).businessName(c.getBusinessName())
+                .email(c.getEmail()).phones(c.getPhones()).version(c.getVersion())
+                .lastModified(c.getLastModified())
+                .fullNameKey(SearchKeys.name(c.getFullName()))
+                .businessNameKey(SearchKeys.name(c.getBusinessName()))
+                .emailKey(SearchKeys.email(c.getEmail()))
+                .phoneKeys(SearchKeys.phones(c.getPhones())).build();
+    }
+}
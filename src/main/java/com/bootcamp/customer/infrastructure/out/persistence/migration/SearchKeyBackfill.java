@@ -0,0 +1,79 @@
+package com.bootcamp.customer.infrastructure.out.persistence.migration;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.SearchKeys;
+import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import static com.bootcamp.customer.infrastructure.out.persistence.adapter.CustomerRepositoryAdapter.BUSINESS_NAME_KEY;
+import static com.bootcamp.customer.infrastructure.out.persistence.adapter.CustomerRepositoryAdapter.EMAIL_KEY;
+import static com.bootcamp.customer.infrastructure.out.persistence.adapter.CustomerRepositoryAdapter.FULL_NAME_KEY;
+import static com.bootcamp.customer.infrastructure.out.persistence.adapter.CustomerRepositoryAdapter.PHONE_KEYS;
+
+/**
+ * Completa las claves de búsqueda (fullNameKey, businessNameKey, emailKey, phoneKeys) en
+ * documentos escritos antes de que existieran; sin ellas esos clientes no aparecen al buscar.
+ * Corre en segundo plano al arrancar ({@code customer.search.backfill-on-startup}); no cambia
+ * la versión, así que no invalida cachés ni ETags. Cada update exige la misma versión que se
+ * leyó: si el cliente cambió entretanto se saltea (esa escritura ya guardó sus claves). Basta
+ * con ejecutarlo una vez: las escrituras nuevas ya guardan las claves.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+@ConditionalOnProperty(prefix = "customer.search", name = "backfill-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+public class SearchKeyBackfill implements ApplicationRunner {
+
+    private static final int CONCURRENCY = 8;
+
+    private final ReactiveMongoTemplate template;
+    private final CustomerProperties props;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill().subscribe(
+                n -> log.info("claves de búsqueda completadas en {} clientes", n),
+                e -> log.warn("no se pudieron completar las claves de búsqueda", e));
+    }
+
+    Mono<Long> backfill() {
+        Query pending = new Query(new Criteria().orOperator(
+                Criteria.where("fullName").ne(null).and(FULL_NAME_KEY).exists(false),
+                Criteria.where("businessName").ne(null).and(BUSINESS_NAME_KEY).exists(false),
+                Criteria.where("email").ne(null).and(EMAIL_KEY).exists(false),
+                Criteria.where("phones.0").exists(true).and(PHONE_KEYS).exists(false)));
+        pending.fields().include("fullName").include("businessName").include("email").include("phones").include("version");
+        pending.cursorBatchSize(props.getListing().getCursorBatchSize());
+        return template.find(pending, CustomerDocument.class)
+                .flatMap(d -> template.updateFirst(unchanged(d), keys(d), CustomerDocument.class), CONCURRENCY)
+                .filter(r -> r.getModifiedCount() > 0)
+                .count();
+    }
+
+    // los documentos anteriores a @Version no tienen el campo; la primera escritura lo crea
+    static Query unchanged(CustomerDocument d) {
+        Criteria version = Criteria.where("id").is(d.getId()).and("version");
+        return new Query(d.getVersion() == null ? version.exists(false) : version.is(d.getVersion()));
+    }
+
+    private static Update keys(CustomerDocument d) {
+        Update update = new Update();
+        if (d.getFullName() != null) update.set(FULL_NAME_KEY, SearchKeys.name(d.getFullName()));
+        if (d.getBusinessName() != null) update.set(BUSINESS_NAME_KEY, SearchKeys.name(d.getBusinessName()));
+        if (d.getEmail() != null) update.set(EMAIL_KEY, SearchKeys.email(d.getEmail()));
+        if (d.getPhones() != null && !d.getPhones().isEmpty()) update.set(PHONE_KEYS, SearchKeys.phones(d.getPhones()));
+        return update;
+    }
+}
@@ -6,9 +6,12 @@ import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface ReactiveCustomerMongoRepository
         extends ReactiveMongoRepository<CustomerDocument, String> {
 
     Mono<CustomerDocument> findByDocumentNumber(String documentNumber);
     Flux<CustomerDocument> findByType(CustomerType type);
+    Flux<CustomerDocument> findByDocumentNumberIn(Collection<String> documentNumbers);
 }
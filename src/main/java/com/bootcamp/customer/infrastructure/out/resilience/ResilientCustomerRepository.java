@@ -0,0 +1,303 @@
+package com.bootcamp.customer.infrastructure.out.resilience;
+
+import com.bootcamp.customer.domain.model.BulkInsertResult;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Decorador de {@link CustomerRepositoryPort} que protege al almacén cuando Mongo se degrada.
+ * <p>
+ * Cada operación lleva su timeout, pasa por un circuit breaker y ocupa un permiso del bulkhead
+ * (sin espera: si no hay permiso falla al instante con {@link BulkheadFullException}). Las
+ * lecturas puntuales que fallan por indisponibilidad se responden desde {@code stale}, una
+ * copia de lo último leído o escrito que dura más que la caché normal.
+ * <p>
+ * Listados, importaciones y agregaciones usan su propio breaker ({@code bulkBreaker}) y su
+ * bulkhead: un export lento o que falla no abre el circuito de las lecturas puntuales. En los
+ * listados en streaming el timeout entre documentos queda por fuera del breaker, porque también
+ * salta cuando el que consume no pide más (backpressure) y eso no es un fallo de Mongo.
+ */
+public class ResilientCustomerRepository implements CustomerRepositoryPort {
+
+    private static final String DOC_PREFIX = "doc:";
+
+    private final CustomerRepositoryPort delegate;
+    private final CircuitBreaker breaker;      // operaciones puntuales
+    private final CircuitBreaker bulkBreaker;  // listados, importaciones y agregaciones
+    private final Bulkhead calls;   // operaciones puntuales
+    private final Bulkhead bulk;    // listados e importaciones: no deben quitarle permisos a las lecturas
+    private final Cache<String, Customer> stale;
+    private final Timeouts timeouts;
+
+    @Value
+    @Builder
+    public static class Timeouts {
+        Duration read;
+        Duration write;
+        Duration bulk;
+        Duration scanIdle;   // máximo entre dos documentos de un listado en streaming
+    }
+
+    public ResilientCustomerRepository(CustomerRepositoryPort delegate,
+                                       CircuitBreaker breaker, CircuitBreaker bulkBreaker,
+                                       Bulkhead calls, Bulkhead bulk,
+                                       Cache<String, Customer> stale, Timeouts timeouts) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.bulkBreaker = bulkBreaker;
+        this.calls = calls;
+        this.bulk = bulk;
+        this.stale = stale;
+        this.timeouts = timeouts;
+    }
+
+    // ---------- protección ----------
+
+    // bulkhead por fuera: un rechazo por carga no cuenta como fallo del breaker;
+    // timeout por dentro: una consulta lenta sí cuenta
+    private <T> Mono<T> guard(Mono<T> call, Duration timeout, Bulkhead bulkhead) {
+        return guard(call, timeout, breaker, bulkhead);
+    }
+
+    private <T> Flux<T> guard(Flux<T> call, Duration timeout, Bulkhead bulkhead) {
+        return guard(call, timeout, breaker, bulkhead);
+    }
+
+    private <T> Mono<T> guard(Mono<T> call, Duration timeout, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        return call.timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private <T> Flux<T> guard(Flux<T> call, Duration timeout, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        return call.timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    // operaciones masivas acotadas (insertMany, $in, agregación): una lenta sí cuenta, pero en su breaker
+    private <T> Mono<T> guardBulk(Mono<T> call) {
+        return guard(call, timeouts.getBulk(), bulkBreaker, bulk);
+    }
+
+    private <T> Flux<T> guardBulk(Flux<T> call) {
+        return guard(call, timeouts.getBulk(), bulkBreaker, bulk);
+    }
+
+    // listados en streaming: el timeout entre documentos va por fuera; al saltar cancela el
+    // cursor y el breaker trata la cancelación como neutra (ni éxito ni fallo)
+    private <T> Flux<T> guardScan(Flux<T> call) {
+        return call.transformDeferred(CircuitBreakerOperator.of(bulkBreaker))
+                .transformDeferred(BulkheadOperator.of(bulk))
+                .timeout(timeouts.getScanIdle());
+    }
+
+    static boolean isUnavailable(Throwable e) {
+        return e instanceof CallNotPermittedException
+                || e instanceof BulkheadFullException
+                || e instanceof TimeoutException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    // ---------- lecturas puntuales: con respaldo en stale ----------
+
+    @Override
+    public Mono<Customer> findById(String id) {
+        return guard(delegate.findById(id), timeouts.getRead(), calls)
+                .doOnNext(this::remember)
+                .onErrorResume(ResilientCustomerRepository::isUnavailable,
+                        e -> fallback(stale.getIfPresent(id), e));
+    }
+
+    @Override
+    public Mono<Customer> findByDocumentNumber(String doc) {
+        return guard(delegate.findByDocumentNumber(doc), timeouts.getRead(), calls)
+                .doOnNext(this::remember)
+                .onErrorResume(ResilientCustomerRepository::isUnavailable,
+                        e -> fallback(stale.getIfPresent(DOC_PREFIX + doc), e));
+    }
+
+    // en lote se devuelve lo que haya en stale; los que falten quedan fuera de la respuesta
+    @Override
+    public Flux<Customer> findAllById(Collection<String> ids) {
+        return guard(delegate.findAllById(ids), timeouts.getRead(), calls)
+                .doOnNext(this::remember)
+                .onErrorResume(ResilientCustomerRepository::isUnavailable,
+                        e -> staleAll(ids, Function.identity()));
+    }
+
+    @Override
+    public Flux<Customer> findAllByDocumentNumber(Collection<String> docs) {
+        return guard(delegate.findAllByDocumentNumber(docs), timeouts.getRead(), calls)
+                .doOnNext(this::remember)
+                .onErrorResume(ResilientCustomerRepository::isUnavailable,
+                        e -> staleAll(docs, doc -> DOC_PREFIX + doc));
+    }
+
+    // proyecciones: no se guardan en stale (son parciales), pero sí se responden desde ahí
+    @Override
+    public Mono<Customer> findById(String id, CustomerFields fields) {
+        if (fields == null) return findById(id);
+        return guard(delegate.findById(id, fields), timeouts.getRead(), calls)
+                .onErrorResume(ResilientCustomerRepository::isUnavailable,
+                        e -> fallback(stale.getIfPresent(id), e));
+    }
+
+    @Override
+    public Mono<Customer> findByDocumentNumber(String doc, CustomerFields fields) {
+        if (fields == null) return findByDocumentNumber(doc);
+        return guard(delegate.findByDocumentNumber(doc, fields), timeouts.getRead(), calls)
+                .onErrorResume(ResilientCustomerRepository::isUnavailable,
+                        e -> fallback(stale.getIfPresent(DOC_PREFIX + doc), e));
+    }
+
+    private static Mono<Customer> fallback(Customer cached, Throwable cause) {
+        return cached != null ? Mono.just(cached) : Mono.error(cause);
+    }
+
+    private Flux<Customer> staleAll(Collection<String> keys, Function<String, String> toKey) {
+        return Flux.fromIterable(keys).map(toKey).map(stale::getIfPresent).filter(Objects::nonNull);
+    }
+
+    private void remember(Customer c) {
+        if (c.getId() != null) stale.put(c.getId(), c);
+        if (c.getDocumentNumber() != null) stale.put(DOC_PREFIX + c.getDocumentNumber(), c);
+    }
+
+    // sin documento conocido se usa el de la copia por id
+    private void forget(String id, String doc) {
+        Customer known = id == null ? null : stale.getIfPresent(id);
+        if (known != null && known.getDocumentNumber() != null) stale.invalidate(DOC_PREFIX + known.getDocumentNumber());
+        if (id != null) stale.invalidate(id);
+        if (doc != null) stale.invalidate(DOC_PREFIX + doc);
+    }
+
+    // ---------- escrituras: sin respaldo, fallan rápido ----------
+
+    @Override
+    public Mono<Customer> insert(Customer customer) {
+        return guard(delegate.insert(customer), timeouts.getWrite(), calls).doOnNext(this::remember);
+    }
+
+    @Override
+    public Mono<Customer> save(Customer customer) {
+        return guard(delegate.save(customer), timeouts.getWrite(), calls).doOnNext(this::remember);
+    }
+
+    @Override
+    public Mono<Customer> patch(String id, CustomerPatch patch) {
+        return guard(delegate.patch(id, patch), timeouts.getWrite(), calls)
+                .doOnNext(previous -> {
+                    forget(id, previous.getDocumentNumber());
+                    remember(patch.applyTo(previous.toBuilder().build()));
+                })
+                // resultado incierto (no un rechazo): mejor no servir nada que algo que quizá ya cambió
+                .doOnError(e -> {
+                    if (!(e instanceof CallNotPermittedException || e instanceof BulkheadFullException)) forget(id, null);
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return findAndDeleteById(id).then();
+    }
+
+    @Override
+    public Mono<Customer> findAndDeleteById(String id) {
+        return guard(delegate.findAndDeleteById(id), timeouts.getWrite(), calls)
+                .doOnSuccess(deleted -> forget(id, deleted == null ? null : deleted.getDocumentNumber()));
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<Customer> customers) {
+        return guardBulk(delegate.insertAll(customers));
+    }
+
+    // ---------- listados ----------
+
+    @Override
+    public Flux<Customer> findAll() {
+        return guardScan(delegate.findAll());
+    }
+
+    @Override
+    public Flux<Customer> findByType(CustomerType type) {
+        return guardScan(delegate.findByType(type));
+    }
+
+    @Override
+    public Flux<Customer> findPage(CustomerType type, String afterId, int limit) {
+        return guard(delegate.findPage(type, afterId, limit), timeouts.getRead(), calls);
+    }
+
+    @Override
+    public Flux<Customer> findAll(CustomerFields fields) {
+        return guardScan(delegate.findAll(fields));
+    }
+
+    @Override
+    public Flux<Customer> findByType(CustomerType type, CustomerFields fields) {
+        return guardScan(delegate.findByType(type, fields));
+    }
+
+    @Override
+    public Flux<Customer> findPage(CustomerType type, String afterId, int limit, CustomerFields fields) {
+        return guard(delegate.findPage(type, afterId, limit, fields), timeouts.getRead(), calls);
+    }
+
+    // agregación sobre toda la colección: cupo de operaciones masivas
+    @Override
+    public Mono<Map<CustomerShape, Long>> countByShape() {
+        return guardBulk(delegate.countByShape());
+    }
+
+    // búsquedas: consultas por índice acotadas por limit, como una página
+    @Override
+    public Flux<Customer> findByEmail(String email, String afterId, int limit) {
+        return guard(delegate.findByEmail(email, afterId, limit), timeouts.getRead(), calls);
+    }
+
+    @Override
+    public Flux<Customer> findByPhone(String phone, String afterId, int limit) {
+        return guard(delegate.findByPhone(phone, afterId, limit), timeouts.getRead(), calls);
+    }
+
+    @Override
+    public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit) {
+        return guard(delegate.findByNamePrefix(prefix, afterKey, afterId, limit), timeouts.getRead(), calls);
+    }
+
+    @Override
+    public Flux<String> findExistingDocumentNumbers(Collection<String> docs) {
+        return guardBulk(delegate.findExistingDocumentNumbers(docs));
+    }
+
+    @Override
+    public Flux<String> findAllDocumentNumbers() {
+        return guardScan(delegate.findAllDocumentNumbers());
+    }
+}
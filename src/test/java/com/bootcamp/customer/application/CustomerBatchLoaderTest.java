@@ -0,0 +1,67 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerBatchLoaderTest {
+
+    @Mock
+    CustomerRepositoryPort repo;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_fallosConcurrentes_unSoloFindAllById() {
+        when(repo.findAllById(anyCollection())).thenReturn(Flux.just(
+                Customer.builder().id("A").documentNumber("DOC-A").build(),
+                Customer.builder().id("B").documentNumber("DOC-B").build()));
+
+        CustomerBatchLoader loader = new CustomerBatchLoader(repo, Duration.ofMillis(20), 100,
+                Schedulers.parallel(), new SimpleMeterRegistry());
+
+        Mono<List<String>> all = Flux.merge(loader.load("A"), loader.load("B"), loader.load("A"),
+                        loader.load("X").map(c -> "no-debería"))
+                .map(Customer::getId)
+                .collectList();
+
+        StepVerifier.create(all)
+                .assertNext(ids -> assertThat(ids).containsExactlyInAnyOrder("A", "B", "A"))
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repo, times(1)).findAllById(captor.capture());
+        assertThat(captor.getValue()).containsExactlyInAnyOrder("A", "B", "X");
+    }
+
+    @Test
+    void load_loteLleno_seDespachaSinEsperarLaVentana() {
+        when(repo.findAllById(anyCollection())).thenReturn(Flux.empty());
+
+        CustomerBatchLoader loader = new CustomerBatchLoader(repo, Duration.ofMinutes(1), 2,
+                Schedulers.parallel(), new SimpleMeterRegistry());
+
+        StepVerifier.create(Flux.merge(loader.load("A"), loader.load("B")))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(repo, times(1)).findAllById(anyCollection());
+    }
+}
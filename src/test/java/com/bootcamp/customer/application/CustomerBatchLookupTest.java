@@ -0,0 +1,141 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.out.cache.CachingCustomerRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+// lecturas por lote del servicio sobre la caché real y el almacén simulado
+@ExtendWith(MockitoExtension.class)
+class CustomerBatchLookupTest {
+
+    @Mock
+    CustomerRepositoryPort repo;
+
+    private AsyncCache<String, Customer> idCache;
+    private AsyncCache<String, Customer> docCache;
+    private CustomerServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        idCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(10)).buildAsync();
+        docCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(10)).buildAsync();
+        service = new CustomerServiceImpl(
+                new CachingCustomerRepository(repo, idCache, docCache, CachingCustomerRepository.Options.defaults()),
+                Caffeine.newBuilder().buildAsync(), new CustomerProperties(), new CustomerStatsCounter());
+    }
+
+    private static Customer customer(String id) {
+        return Customer.builder().id(id).documentNumber("DOC-" + id).type(CustomerType.PERSONAL).fullName("N " + id).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByIds_aciertosDeCache_yUnaSolaConsultaConLosFallos() {
+        idCache.synchronous().put("C1", customer("C1"));
+        when(repo.findAllById(anyCollection())).thenReturn(Flux.just(customer("C2"), customer("C3")));
+
+        StepVerifier.create(service.findByIds(List.of("C1", "C2", "C3")).map(Customer::getId).collectList())
+                .assertNext(ids -> assertThat(ids).containsExactlyInAnyOrder("C1", "C2", "C3"))
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<String>> misses = ArgumentCaptor.forClass(Collection.class);
+        verify(repo, times(1)).findAllById(misses.capture());
+        assertThat(misses.getValue()).containsExactlyInAnyOrder("C2", "C3");
+        assertThat(docCache.synchronous().getIfPresent("DOC-C2")).isNotNull();
+    }
+
+    @Test
+    void findByIds_todoEnCache_noConsultaAlmacen() {
+        idCache.synchronous().put("C1", customer("C1"));
+        idCache.synchronous().put("C2", customer("C2"));
+
+        StepVerifier.create(service.findByIds(List.of("C2", "C1")).map(Customer::getId))
+                .expectNext("C2", "C1")
+                .verifyComplete();
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByIds_repetidosYConEspacios_seConsultanUnaVez() {
+        when(repo.findAllById(anyCollection())).thenReturn(Flux.just(customer("A"), customer("B")));
+
+        StepVerifier.create(service.findByIds(List.of(" A", "A", "B ", "A", " ")).map(Customer::getId))
+                .expectNext("A", "B")
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<String>> misses = ArgumentCaptor.forClass(Collection.class);
+        verify(repo).findAllById(misses.capture());
+        assertThat(misses.getValue()).containsExactlyInAnyOrder("A", "B");
+    }
+
+    @Test
+    void findByIds_respetaOrdenPedido_aunqueElAlmacenDevuelvaOtro() {
+        idCache.synchronous().put("C1", customer("C1"));
+        when(repo.findAllById(anyCollection())).thenReturn(Flux.just(customer("C2"), customer("C3")));
+
+        StepVerifier.create(service.findByIds(List.of("C3", "C1", "C2")).map(Customer::getId))
+                .expectNext("C3", "C1", "C2")
+                .verifyComplete();
+    }
+
+    @Test
+    void findByIds_masDelMaximo_seRechazaSinConsultar() {
+        List<String> ids = IntStream.rangeClosed(0, CustomerServiceImpl.MAX_BATCH_SIZE).mapToObj(i -> "C" + i).toList();
+
+        StepVerifier.create(service.findByIds(ids))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining(String.valueOf(CustomerServiceImpl.MAX_BATCH_SIZE)))
+                .verify();
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void findByIds_repetidosNoCuentanParaElMaximo() {
+        List<String> ids = IntStream.range(0, CustomerServiceImpl.MAX_BATCH_SIZE * 2).mapToObj(i -> "C" + (i % 3)).toList();
+        when(repo.findAllById(anyCollection())).thenReturn(Flux.just(customer("C0"), customer("C1"), customer("C2")));
+
+        StepVerifier.create(service.findByIds(ids)).expectNextCount(3).verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByDocumentNumbers_normalizaYDeduplica() {
+        docCache.synchronous().put("DOC-C1", customer("C1"));
+        when(repo.findAllByDocumentNumber(anyCollection())).thenReturn(Flux.just(customer("C2")));
+
+        StepVerifier.create(service.findByDocumentNumbers(List.of("DOC-C2 ", " DOC-C1", "DOC-C2")).map(Customer::getId))
+                .expectNext("C2", "C1")
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<String>> misses = ArgumentCaptor.forClass(Collection.class);
+        verify(repo).findAllByDocumentNumber(misses.capture());
+        assertThat(misses.getValue()).containsExactly("DOC-C2");
+        verify(repo, never()).findByDocumentNumber(any());
+    }
+}
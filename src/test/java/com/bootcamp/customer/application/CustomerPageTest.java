@@ -0,0 +1,107 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerSearch;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.infrastructure.out.memory.InMemoryCustomerRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// paginación keyset del servicio (listado y búsqueda por nombre) sobre el almacén en memoria (10 clientes, pares PERSONAL, impares ENTERPRISE)
+class CustomerPageTest {
+
+    private CustomerServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        CustomerProperties props = new CustomerProperties();
+        props.getInMemory().setSeedCustomers(10);
+        props.getListing().setDefaultPageSize(3);
+        props.getListing().setMaxPageSize(4);
+        service = new CustomerServiceImpl(new InMemoryCustomerRepository(props),
+                Caffeine.newBuilder().buildAsync(), props, new CustomerStatsCounter());
+    }
+
+    private static String id(int i) {
+        return String.format("%024x", i);
+    }
+
+    private List<String> page(CustomerType type, String after, Integer limit) {
+        return service.findPage(type, after, limit).map(Customer::getId).collectList().block();
+    }
+
+    @Test
+    void cursor_idaYVuelta_recorreTodoSinRepetirNiSaltear() {
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        List<String> page;
+        int pages = 0;
+        do {
+            page = page(null, after, 4);
+            seen.addAll(page);
+            pages++;
+            if (!page.isEmpty()) after = page.get(page.size() - 1);
+        } while (page.size() == 4);
+
+        assertThat(seen).containsExactly(id(0), id(1), id(2), id(3), id(4), id(5), id(6), id(7), id(8), id(9));
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void limitMayorAlMaximo_seRecortaAlMaximo() {
+        assertThat(page(null, null, 1_000)).hasSize(4);
+    }
+
+    @Test
+    void sinLimit_usaElTamanoPorDefecto() {
+        assertThat(page(null, null, null)).containsExactly(id(0), id(1), id(2));
+    }
+
+    @Test
+    void ultimaPagina_vieneIncompleta_yDespuesVacia() {
+        assertThat(page(null, id(7), 4)).containsExactly(id(8), id(9));
+        assertThat(page(null, id(9), 4)).isEmpty();
+    }
+
+    @Test
+    void cursorConTipo_soloDevuelveEseTipoDespuesDelCursor() {
+        assertThat(page(CustomerType.ENTERPRISE, null, 2)).containsExactly(id(1), id(3));
+        // el cursor puede ser un id de otro tipo: se sigue desde su posición
+        assertThat(page(CustomerType.ENTERPRISE, id(4), 2)).containsExactly(id(5), id(7));
+        assertThat(page(CustomerType.PERSONAL, id(7), 4)).containsExactly(id(8));
+    }
+
+    @Test
+    void cursorConEspacios_seRecorta_yEnBlancoEsElPrincipio() {
+        assertThat(page(null, " " + id(2) + " ", 2)).containsExactly(id(3), id(4));
+        assertThat(page(null, "  ", 2)).containsExactly(id(0), id(1));
+    }
+
+    @Test
+    void limitMenorAUno_esError() {
+        StepVerifier.create(service.findPage(null, null, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void busquedaPorNombre_cursorEsElIdDelUltimo_yUnIdQueNoCoincideEsError() {
+        CustomerSearch byName = CustomerSearch.builder().namePrefix("Cliente").build();
+
+        assertThat(service.search(byName, null, 2).map(Customer::getId).collectList().block())
+                .containsExactly(id(0), id(2));
+        assertThat(service.search(byName, id(2), 2).map(Customer::getId).collectList().block())
+                .containsExactly(id(4), id(6));
+        StepVerifier.create(service.search(byName, id(1), 2))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
@@ -1,11 +1,15 @@
 package com.bootcamp.customer.application;
 
+import com.bootcamp.customer.config.CustomerProperties;
 import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerPatch;
 import com.bootcamp.customer.domain.model.CustomerType;
 import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.bootcamp.customer.infrastructure.out.cache.CachingCustomerRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,7 +17,9 @@ import org.junit.jupiter.params.provider.CsvFileSource;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
@@ -22,6 +28,7 @@ import java.util.Objects;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -31,18 +38,18 @@ class CustomerServiceCacheTest {
     @Mock
     CustomerRepositoryPort repo;
 
-    private Cache<String, Customer> idCache;
-    private Cache<String, Customer> docCache;
-    private Cache<String, Mono<Customer>> byIdMonoCache;
+    private AsyncCache<String, Customer> idCache;
+    private AsyncCache<String, Customer> docCache;
 
     private CustomerServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        idCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(10)).build();
-        docCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(10)).build();
-        byIdMonoCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(5)).build();
-        service = new CustomerServiceImpl(repo, idCache, docCache, byIdMonoCache);
+        idCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(10)).buildAsync();
+        docCache = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofMinutes(10)).buildAsync();
+        service = new CustomerServiceImpl(
+                new CachingCustomerRepository(repo, idCache, docCache, CachingCustomerRepository.Options.defaults()),
+                Caffeine.newBuilder().buildAsync(), new CustomerProperties(), new CustomerStatsCounter());
     }
 
     // ---------- helpers ----------
@@ -93,9 +100,10 @@ class CustomerServiceCacheTest {
                 "sales@company.com",
                 List.of("111","222")
         );
+        expected.setVersion(1L); // el findAndModify incrementa la versión
 
-        when(repo.findById(id)).thenReturn(Mono.just(existing));
-        when(repo.save(any(Customer.class))).thenReturn(Mono.just(expected));
+        // patch devuelve la imagen previa; el servicio aplica el cambio sobre ella
+        when(repo.patch(eq(id), any(CustomerPatch.class))).thenReturn(Mono.just(existing));
 
         // -------- Act --------
         final Mono<Customer> result = service.update(id, patch);
@@ -110,13 +118,102 @@ class CustomerServiceCacheTest {
                 )
                 .verifyComplete();
 
-        assertThat(idCache.getIfPresent(id)).isEqualTo(expected);
-        verify(repo).findById(id);
-        verify(repo).save(any(Customer.class));
+        assertThat(idCache.synchronous().getIfPresent(id)).isEqualTo(expected);
+        verify(repo).patch(eq(id), any(CustomerPatch.class));
         verifyNoMoreInteractions(repo);
     }
 
+    @Test
+    void findById_fallosConcurrentes_compartenUnaSolaConsulta() {
+        Sinks.One<Customer> db = Sinks.one();
+        when(repo.findById("C1")).thenReturn(db.asMono());
 
+        Mono<Customer> first = service.findById("C1");
+        Mono<Customer> second = service.findById("C1");
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> db.tryEmitValue(customer("C1", "DOC-1", CustomerType.PERSONAL, "Ana", null, null, List.of())))
+                .assertNext(t -> assertThat(t.getT1()).isSameAs(t.getT2()))
+                .verifyComplete();
+
+        assertThat(docCache.synchronous().getIfPresent("DOC-1")).isNotNull();
+        verify(repo, times(1)).findById("C1");
+    }
+
+    @Test
+    void findByDocumentNumber_error_noQuedaEnCache() {
+        when(repo.findByDocumentNumber("DOC-9"))
+                .thenReturn(Mono.error(new IllegalStateException("mongo caído")))
+                .thenReturn(Mono.just(customer("C9", "DOC-9", CustomerType.PERSONAL, "Luis", null, null, List.of())));
+
+        StepVerifier.create(service.findByDocumentNumber("DOC-9")).verifyError(IllegalStateException.class);
+        StepVerifier.create(service.findByDocumentNumber("DOC-9"))
+                .expectNextMatches(c -> "C9".equals(c.getId()))
+                .verifyComplete();
+
+        verify(repo, times(2)).findByDocumentNumber("DOC-9");
+    }
+
+    @Test
+    void create_duplicateKey_seMapeaAErrorDeNegocio() {
+        when(repo.insert(any(Customer.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        StepVerifier.create(service.create(customer(null, " DOC-1 ", CustomerType.PERSONAL, "Ana", null, null, null)))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("documentNumber already exists"))
+                .verify();
+
+        verify(repo, never()).findByDocumentNumber(any());
+    }
+
+    @Test
+    void create_mismaIdempotencyKey_unSoloInsert() {
+        when(repo.insert(any(Customer.class)))
+                .thenReturn(Mono.just(customer("C1", "DOC-1", CustomerType.PERSONAL, "Ana", null, null, null)));
 
+        Customer body = customer(null, "DOC-1", CustomerType.PERSONAL, "Ana", null, null, null);
+        StepVerifier.create(service.create(body, "key-1")).expectNextMatches(c -> "C1".equals(c.getId())).verifyComplete();
+        StepVerifier.create(service.create(body, "key-1")).expectNextMatches(c -> "C1".equals(c.getId())).verifyComplete();
 
+        verify(repo, times(1)).insert(any(Customer.class));
+    }
+
+    @Test
+    void create_normalizaEmailYTelefonos_comoLasClavesDeBusqueda() {
+        when(repo.insert(any(Customer.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0, Customer.class)));
+
+        Customer body = customer("X", " DOC-1 ", CustomerType.PERSONAL, "Ana", null, " Ana@Correo.COM ",
+                List.of(" 999-111", "999-111", " "));
+        StepVerifier.create(service.create(body))
+                .assertNext(c -> {
+                    assertThat(c.getId()).isNull();
+                    assertThat(c.getDocumentNumber()).isEqualTo("DOC-1");
+                    assertThat(c.getEmail()).isEqualTo("ana@correo.com");
+                    assertThat(c.getPhones()).containsExactly("999-111");
+                })
+                .verifyComplete();
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} -> {1}, email {2} -> {4}")
+    @CsvFileSource(resources = "/data/update_document_cases.csv", numLinesToSkip = 1)
+    void update_cambiaDocumento_invalidaDocAnteriorYNormalizaEmail(
+            String oldDoc, String newDoc, String emailBefore, String patchEmail, String expectedEmail) {
+        final String id = "C-" + oldDoc;
+        final Customer existing = customer(id, oldDoc, CustomerType.PERSONAL, "Ana", null, emailBefore, List.of());
+        docCache.synchronous().put(oldDoc, existing);
+
+        final Customer patch = new Customer();
+        patch.setDocumentNumber(newDoc);
+        patch.setEmail(patchEmail);
+
+        when(repo.patch(eq(id), any(CustomerPatch.class))).thenReturn(Mono.just(existing.toBuilder().build()));
+
+        StepVerifier.create(service.update(id, patch))
+                .expectNextMatches(c -> newDoc.equals(c.getDocumentNumber()) && expectedEmail.equals(c.getEmail()))
+                .verifyComplete();
+
+        assertThat(docCache.synchronous().getIfPresent(oldDoc)).isNull();
+        assertThat(docCache.synchronous().getIfPresent(newDoc)).isNotNull();
+    }
 }
@@ -0,0 +1,86 @@
+package com.bootcamp.customer.application;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerStats;
+import com.bootcamp.customer.domain.model.CustomerType;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerStatsCounterTest {
+
+    private static final Map<CustomerShape, Long> SEED = Map.of(
+            new CustomerShape(CustomerType.PERSONAL, true, true), 3L,
+            new CustomerShape(CustomerType.ENTERPRISE, false, true), 2L);
+
+    @Test
+    void escrituras_despuesDeReconciliar_ajustanLosTotales() {
+        CustomerStatsCounter counter = new CustomerStatsCounter();
+        StepVerifier.create(counter.reconcile(Mono.just(SEED)))
+                .assertNext(s -> assertThat(s.getTotal()).isEqualTo(5))
+                .verifyComplete();
+
+        Customer nuevo = Customer.builder().id("N").type(CustomerType.ENTERPRISE).build();
+        counter.created(nuevo);
+        counter.changed(nuevo, nuevo.toBuilder().email("a@b.com").phones(List.of("999")).build());
+        counter.deleted(Customer.builder().id("P").type(CustomerType.PERSONAL).email("x@y.com").phones(List.of("1")).build());
+
+        CustomerStats s = counter.snapshot();
+        assertThat(counter.isSeeded()).isTrue();
+        assertThat(s.getTotal()).isEqualTo(5);
+        assertThat(s.getByType()).containsEntry(CustomerType.PERSONAL, 2L).containsEntry(CustomerType.ENTERPRISE, 3L);
+        assertThat(s.getWithEmail()).isEqualTo(3);
+        assertThat(s.getWithoutEmail()).isEqualTo(2);
+        assertThat(s.getWithPhones()).isEqualTo(5);
+    }
+
+    @Test
+    void escrituraDuranteLaAgregacion_seConservaEnLaBaseNueva() {
+        CustomerStatsCounter counter = new CustomerStatsCounter();
+        Sinks.One<Map<CustomerShape, Long>> aggregation = Sinks.one();
+
+        StepVerifier.create(counter.reconcile(aggregation.asMono()))
+                .then(() -> {
+                    // la agregación ya estaba leyendo: este alta no la incluye
+                    counter.created(Customer.builder().id("N").type(CustomerType.PERSONAL).build());
+                    aggregation.tryEmitValue(SEED);
+                })
+                .assertNext(s -> assertThat(s.getTotal()).isEqualTo(6))
+                .verifyComplete();
+    }
+
+    @Test
+    void reconciliacionesConcurrentes_compartenUnaSolaAgregacion() {
+        CustomerStatsCounter counter = new CustomerStatsCounter();
+        Sinks.One<Map<CustomerShape, Long>> aggregation = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<Map<CustomerShape, Long>> counted = aggregation.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        Mono<CustomerStats> first = counter.reconcile(counted);
+        Mono<CustomerStats> second = counter.reconcile(counted);
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> {
+                    counter.created(Customer.builder().id("N").type(CustomerType.PERSONAL).build());
+                    aggregation.tryEmitValue(SEED);
+                })
+                .assertNext(t -> {
+                    assertThat(t.getT1().getTotal()).isEqualTo(6);
+                    assertThat(t.getT2().getTotal()).isEqualTo(6);
+                })
+                .verifyComplete();
+
+        assertThat(subscriptions).hasValue(1);
+        // terminada la agregación, la siguiente vuelve a consultar
+        StepVerifier.create(counter.reconcile(Mono.just(SEED)))
+                .assertNext(s -> assertThat(s.getTotal()).isEqualTo(5))
+                .verifyComplete();
+    }
+}
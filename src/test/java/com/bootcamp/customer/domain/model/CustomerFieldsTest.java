@@ -0,0 +1,22 @@
+package com.bootcamp.customer.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerFieldsTest {
+
+    @Test
+    void parse_agregaElId_yRespetaElOrdenDeLaRespuesta() {
+        assertThat(CustomerFields.parse("documentNumber, type").names())
+                .containsExactly("id", "type", "documentNumber");
+        assertThat(CustomerFields.parse(" ")).isNull();
+    }
+
+    @Test
+    void campoDesconocido_esUnError() {
+        assertThatThrownBy(() -> CustomerFields.parse("id,password"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bootcamp.customer.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchKeysTest {
+
+    @Test
+    void nombre_sinMayusculasTildesNiEspaciosDobles() {
+        assertThat(SearchKeys.name("  José   PÉREZ Ñuñez ")).isEqualTo("jose perez nunez");
+        assertThat(SearchKeys.name("   ")).isNull();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bootcamp.customer.infrastructure.in.web.cache;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.infrastructure.in.web.mapper.CustomerMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerResponseCacheTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static Customer customer(String email) {
+        return Customer.builder().id("C1").type(CustomerType.PERSONAL).documentNumber("123")
+                .fullName("Ana").email(email).version(3L).build();
+    }
+
+    @Test
+    void mismaInstancia_reutilizaLosBytes_yOtraInstanciaSeCodificaDeNuevo() throws Exception {
+        CustomerResponseCache cache = new CustomerResponseCache(mapper,
+                Caffeine.newBuilder().weakKeys().maximumSize(100).build());
+        Customer cached = customer("ana@correo.com");
+
+        byte[] first = cache.json(cached);
+
+        assertThat(first).isEqualTo(mapper.writeValueAsBytes(CustomerMapper.toDto(cached)));
+        assertThat(cache.json(cached)).isSameAs(first);
+        // la caché de dominio reemplazó el objeto (p. ej. tras un update): nunca se sirve el JSON viejo
+        Customer replaced = customer("nuevo@correo.com");
+        assertThat(new String(cache.json(replaced))).contains("nuevo@correo.com");
+    }
+}
@@ -0,0 +1,70 @@
+package com.bootcamp.customer.infrastructure.in.web.codec;
+
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingArrayEncoderTest {
+
+    private static CustomerDto dto(int i) {
+        CustomerDto dto = new CustomerDto();
+        dto.setId("C" + i);
+        dto.setType(CustomerType.PERSONAL);
+        dto.setDocumentNumber("DOC-" + i);
+        dto.setFullName("Cliente " + i);
+        dto.setEmail("c" + i + "@mail.com");
+        dto.setPhones(List.of("999000" + i));
+        return dto;
+    }
+
+    private static byte[] encode(StreamingArrayEncoder encoder, List<CustomerDto> items) {
+        return DataBufferUtils.join(encoder.encode(Flux.fromIterable(items), DefaultDataBufferFactory.sharedInstance,
+                        ResolvableType.forClass(CustomerDto.class), null, Map.of()))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block();
+    }
+
+    @Test
+    void fluxEnCborYSmile_seLeeComoUnSoloArreglo() throws Exception {
+        List<CustomerDto> items = IntStream.range(0, 20).mapToObj(StreamingArrayEncoderTest::dto).toList();
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        TypeReference<List<CustomerDto>> list = new TypeReference<>() { };
+
+        assertThat(cbor.readValue(encode(StreamingArrayEncoder.cbor(cbor), items), list)).isEqualTo(items);
+        assertThat(smile.readValue(encode(StreamingArrayEncoder.smile(smile), items), list)).isEqualTo(items);
+        assertThat(cbor.readValue(encode(StreamingArrayEncoder.cbor(cbor), List.of()), list)).isEmpty();
+    }
+
+    @Test
+    void preferred_soloBinarioSiElClienteLoPrefiereAJson() {
+        assertThat(BinaryMediaTypes.preferred(MediaType.parseMediaTypes("application/cbor"))).isEqualTo(BinaryMediaTypes.CBOR);
+        assertThat(BinaryMediaTypes.preferred(MediaType.parseMediaTypes("application/x-jackson-smile, */*")))
+                .isEqualTo(BinaryMediaTypes.SMILE);
+        assertThat(BinaryMediaTypes.preferred(MediaType.parseMediaTypes("application/json, application/cbor"))).isNull();
+        assertThat(BinaryMediaTypes.preferred(MediaType.parseMediaTypes("application/json;q=0.5, application/cbor")))
+                .isEqualTo(BinaryMediaTypes.CBOR);
+        assertThat(BinaryMediaTypes.preferred(MediaType.parseMediaTypes("*/*"))).isNull();
+        assertThat(BinaryMediaTypes.preferred(List.of())).isNull();
+    }
+}
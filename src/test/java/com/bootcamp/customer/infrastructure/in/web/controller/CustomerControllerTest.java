@@ -0,0 +1,175 @@
+package com.bootcamp.customer.infrastructure.in.web.controller;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.in.CustomerUseCase;
+import com.bootcamp.customer.infrastructure.in.web.cache.CustomerResponseCache;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.bootcamp.customer.infrastructure.in.web.parser.CustomerImportParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerControllerTest {
+
+    @Mock
+    CustomerUseCase useCase;
+
+    @Mock
+    CustomerImportParser importParser;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        CustomerController controller = new CustomerController(useCase, importParser,
+                new CustomerResponseCache(new ObjectMapper(), null));
+        client = WebTestClient.bindToController(controller)
+                .controllerAdvice(new DegradedModeExceptionHandler())
+                .build();
+    }
+
+    private static Customer customer(String id, String doc) {
+        return Customer.builder().id(id).documentNumber(doc).type(CustomerType.PERSONAL).fullName("N " + id).build();
+    }
+
+    // ---------- POST /customers/batch ----------
+
+    @Test
+    void batch_idsYDocumentos_sinRepetidos_enOrdenDePedido() {
+        when(useCase.findByIds(List.of("C2", "C1")))
+                .thenReturn(Flux.just(customer("C2", "DOC-2"), customer("C1", "DOC-1")));
+        when(useCase.findByDocumentNumbers(List.of("DOC-1", "DOC-3")))
+                .thenReturn(Flux.just(customer("C1", "DOC-1"), customer("C3", "DOC-3")));
+
+        client.post().uri("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("ids", List.of("C2", "C1"), "documentNumbers", List.of("DOC-1", "DOC-3")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CustomerDto.class)
+                .value(found -> assertThat(found).extracting(CustomerDto::getId).containsExactly("C2", "C1", "C3"));
+    }
+
+    @Test
+    void batch_sinClaves_devuelveVacio() {
+        when(useCase.findByIds(List.of())).thenReturn(Flux.empty());
+        when(useCase.findByDocumentNumbers(List.of())).thenReturn(Flux.empty());
+
+        client.post().uri("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CustomerDto.class).hasSize(0);
+    }
+
+    @Test
+    void batch_masDe500Ids_400SinConsultar() {
+        List<String> ids = IntStream.rangeClosed(0, 500).mapToObj(i -> "C" + i).toList();
+
+        client.post().uri("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("ids", ids))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(useCase, never()).findByIds(any());
+        verify(useCase, never()).findByDocumentNumbers(any());
+    }
+
+    // ---------- ETag / If-None-Match / If-Match ----------
+
+    private static Customer versioned(long version) {
+        return customer("C1", "DOC-1").toBuilder().version(version).build();
+    }
+
+    private static Map<String, Object> body() {
+        return Map.of("type", "PERSONAL", "documentNumber", "DOC-1", "fullName", "Ana");
+    }
+
+    @Test
+    void get_ifNoneMatchVigente_304SinCuerpo() {
+        when(useCase.findById("C1")).thenReturn(Mono.just(versioned(3)));
+
+        client.get().uri("/customers/C1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"C1-3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"C1-3\"")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void get_ifNoneMatchViejo_200ConEtagActual() {
+        when(useCase.findById("C1")).thenReturn(Mono.just(versioned(3)));
+
+        client.get().uri("/customers/C1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"C1-2\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"C1-3\"")
+                .expectBody().jsonPath("$.id").isEqualTo("C1");
+    }
+
+    @Test
+    void put_ifMatchViejo_412() {
+        when(useCase.update(eq("C1"), any(Customer.class), eq(2L)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("versión 3")));
+
+        client.put().uri("/customers/C1")
+                .header(HttpHeaders.IF_MATCH, "\"C1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body())
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void put_ifMatchAsterisco_noControlaVersion() {
+        when(useCase.update(eq("C1"), any(Customer.class), isNull())).thenReturn(Mono.just(versioned(4)));
+
+        client.put().uri("/customers/C1")
+                .header(HttpHeaders.IF_MATCH, "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"C1-4\"");
+
+        verify(useCase).update(eq("C1"), any(Customer.class), isNull());
+    }
+
+    @Test
+    void put_ifMatchVigente_pasaLaVersionEsperada() {
+        when(useCase.update(eq("C1"), any(Customer.class), eq(3L))).thenReturn(Mono.just(versioned(4)));
+
+        client.put().uri("/customers/C1")
+                .header(HttpHeaders.IF_MATCH, "\"C1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"C1-4\"");
+    }
+}
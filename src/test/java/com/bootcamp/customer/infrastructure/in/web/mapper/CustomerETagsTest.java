@@ -0,0 +1,25 @@
+package com.bootcamp.customer.infrastructure.in.web.mapper;
+
+import com.bootcamp.customer.domain.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerETagsTest {
+
+    @Test
+    void etag_llevaIdYVersion_ySinVersionEsLaCero() {
+        assertThat(CustomerETags.of(Customer.builder().id("C1").version(7L).build())).isEqualTo("\"C1-7\"");
+        assertThat(CustomerETags.of(Customer.builder().id("C1").build())).isEqualTo("\"C1-0\"");
+    }
+
+    @Test
+    void ifMatch_seTraduceAVersionEsperada() {
+        assertThat(CustomerETags.expectedVersion("\"C1-7\"", "C1")).isEqualTo(7L);
+        assertThat(CustomerETags.expectedVersion("\"C2-3\", \"C1-4\"", "C1")).isEqualTo(4L);
+        assertThat(CustomerETags.expectedVersion("*", "C1")).isNull();
+        // ETag de otro cliente o débil: nunca coincide
+        assertThat(CustomerETags.expectedVersion("\"C2-7\"", "C1")).isEqualTo(-1L);
+        assertThat(CustomerETags.expectedVersion("W/\"C1-7\"", "C1")).isEqualTo(-1L);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bootcamp.customer.infrastructure.in.web.parser;
+
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerImportParserTest {
+
+    private final CustomerImportParser parser = new CustomerImportParser(new ObjectMapper());
+
+    private static Flux<DataBuffer> body(String text) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void parseCsv_archivoDeEjemplo_mapeaNombreSegunTipo() {
+        Flux<DataBuffer> file = DataBufferUtils.read(new ClassPathResource("data/customers.csv"),
+                DefaultDataBufferFactory.sharedInstance, 64);
+
+        StepVerifier.create(parser.parseCsv(file))
+                .assertNext(r -> {
+                    assertThat(r.getRow()).isEqualTo(1);
+                    assertThat(r.getCustomer().getDocumentNumber()).isEqualTo("DNI-2001");
+                    assertThat(r.getCustomer().getFullName()).isEqualTo("Ana León");
+                })
+                .assertNext(r -> {
+                    assertThat(r.getCustomer().getType()).isEqualTo(CustomerType.ENTERPRISE);
+                    assertThat(r.getCustomer().getBusinessName()).isEqualTo("Innova SRL");
+                    assertThat(r.getCustomer().getFullName()).isNull();
+                })
+                .assertNext(r -> assertThat(r.getCustomer().getDocumentNumber()).isEqualTo("DNI-2002"))
+                .verifyComplete();
+    }
+
+    @Test
+    void parseCsv_camposEntreComillasYTipoInvalido() {
+        String csv = "doc,type,name,phones\n"
+                + "RUC-1,ENTERPRISE,\"Innova, S.A.\",111|222\n"
+                + "DNI-9,OTRO,Luis\n";
+
+        StepVerifier.create(parser.parseCsv(body(csv)))
+                .assertNext(r -> {
+                    assertThat(r.getCustomer().getBusinessName()).isEqualTo("Innova, S.A.");
+                    assertThat(r.getCustomer().getPhones()).containsExactly("111", "222");
+                })
+                .assertNext(r -> {
+                    assertThat(r.getCustomer()).isNull();
+                    assertThat(r.getError()).contains("OTRO");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void parseNdjson_lineaInvalida_noCortaElFlujo() {
+        String ndjson = "{\"type\":\"PERSONAL\",\"documentNumber\":\"DNI-1\"}\n"
+                + "{no es json\n"
+                + "{\"type\":\"ENTERPRISE\",\"documentNumber\":\"RUC-2\"}\n";
+
+        StepVerifier.create(parser.parseNdjson(body(ndjson)))
+                .assertNext(r -> assertThat(r.getCustomer().getDocumentNumber()).isEqualTo("DNI-1"))
+                .assertNext(r -> assertThat(r.getError()).startsWith("JSON inválido"))
+                .assertNext(r -> assertThat(r.getRow()).isEqualTo(3))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,43 @@
+package com.bootcamp.customer.infrastructure.metrics;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredCustomerRepositoryTest {
+
+    @Mock
+    CustomerRepositoryPort store;
+
+    @Test
+    void cuentaIdasAMongo_enElContextoDelPedido_ySeparaPorResultado() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredCustomerRepository repo = new MeteredCustomerRepository(store, registry);
+        when(store.findById("C1")).thenReturn(Mono.just(Customer.builder().id("C1").build()));
+        when(store.findById("C2")).thenReturn(Mono.empty());
+        AtomicInteger roundTrips = new AtomicInteger();
+
+        StepVerifier.create(repo.findById("C1").then(repo.findById("C2"))
+                        .contextWrite(ctx -> ctx.put(MeteredCustomerRepository.ROUND_TRIPS, roundTrips)))
+                .verifyComplete();
+
+        assertThat(roundTrips.get()).isEqualTo(2);
+        assertThat(registry.get("customer.repository").tags("operation", "findById", "outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("customer.repository").tags("operation", "findById", "outcome", "empty").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("customer.repository.inflight").tag("operation", "findById").gauge().value()).isZero();
+    }
+}
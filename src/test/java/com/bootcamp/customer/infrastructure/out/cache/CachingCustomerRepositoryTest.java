@@ -0,0 +1,415 @@
+package com.bootcamp.customer.infrastructure.out.cache;
+
+import com.bootcamp.customer.application.CustomerBatchLoader;
+import com.bootcamp.customer.domain.model.BulkInsertResult;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerFields;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerShape;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.bootcamp.customer.infrastructure.metrics.MeteredCustomerRepository;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CacheInvalidationListener;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.CustomerInvalidation;
+import com.bootcamp.customer.infrastructure.out.cache.invalidation.InMemoryInvalidationBus;
+import com.bootcamp.customer.infrastructure.out.cache.negative.MissingDocumentGuard;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingCustomerRepositoryTest {
+
+    private FakeStore store;
+    private AsyncCache<String, Customer> idCache;
+    private AsyncCache<String, Customer> docCache;
+    private CachingCustomerRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        store = new FakeStore();
+        idCache = Caffeine.newBuilder().buildAsync();
+        docCache = Caffeine.newBuilder().buildAsync();
+        repo = new CachingCustomerRepository(store, idCache, docCache, CachingCustomerRepository.Options.defaults());
+    }
+
+    private static Customer customer(String id, String doc) {
+        return Customer.builder().id(id).documentNumber(doc).type(CustomerType.PERSONAL).fullName("N-" + id).version(0L).build();
+    }
+
+    private static CustomerPatch changeDoc(String newDoc) {
+        CustomerPatch p = new CustomerPatch();
+        p.getSet().put(CustomerPatch.DOCUMENT_NUMBER, newDoc);
+        return p;
+    }
+
+    @Test
+    void delete_invalidaTambienElDocumento() {
+        store.data.put("C1", customer("C1", "DOC-1"));
+        StepVerifier.create(repo.findByDocumentNumber("DOC-1")).expectNextCount(1).verifyComplete();
+        assertThat(idCache.synchronous().getIfPresent("C1")).isNotNull();
+
+        StepVerifier.create(repo.deleteById("C1")).verifyComplete();
+
+        assertThat(idCache.synchronous().getIfPresent("C1")).isNull();
+        assertThat(docCache.synchronous().getIfPresent("DOC-1")).isNull();
+        StepVerifier.create(repo.findByDocumentNumber("DOC-1")).verifyComplete();
+    }
+
+    @Test
+    void entradaVieja_seSirveDeCache_yRecargaEnSegundoPlano() {
+        AtomicLong nanos = new AtomicLong();
+        AsyncCache<String, Customer> ids = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10)).ticker(nanos::get).buildAsync();
+        AsyncCache<String, Customer> docs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10)).ticker(nanos::get).buildAsync();
+        CachingCustomerRepository refreshing =
+                new CachingCustomerRepository(store, ids, docs, CachingCustomerRepository.Options.builder()
+                        .refreshAfterWrite(() -> Duration.ofMinutes(8)).build());
+        store.data.put("C1", customer("C1", "DOC-1"));
+        StepVerifier.create(refreshing.findById("C1")).expectNextCount(1).verifyComplete();
+
+        store.data.put("C1", customer("C1", "DOC-1").toBuilder().fullName("Nuevo").version(1L).build());
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+
+        // se responde con lo cacheado sin esperar a la BD
+        StepVerifier.create(refreshing.findById("C1"))
+                .assertNext(c -> assertThat(c.getFullName()).isEqualTo("N-C1"))
+                .verifyComplete();
+        // la recarga (síncrona con este almacén) ya dejó la versión nueva en ambas claves
+        assertThat(ids.synchronous().getIfPresent("C1").getFullName()).isEqualTo("Nuevo");
+        assertThat(docs.synchronous().getIfPresent("DOC-1").getFullName()).isEqualTo("Nuevo");
+    }
+
+    @Test
+    void documentoInexistente_seRespondeSinIrALaBd_yUnAltaLoVuelveVisible() {
+        MissingDocumentGuard guard = new MissingDocumentGuard(Duration.ofSeconds(30), 1_000, 1_000, 0.01);
+        CachingCustomerRepository guarded =
+                new CachingCustomerRepository(store, idCache, docCache,
+                        CachingCustomerRepository.Options.builder().missingDocs(guard).build());
+        store.data.put("C1", customer("C1", "DOC-1"));
+        StepVerifier.create(guard.rebuild(store.findAllDocumentNumbers())).expectNext(1L).verifyComplete();
+
+        StepVerifier.create(guarded.findByDocumentNumber("NO-EXISTE")).verifyComplete();
+        StepVerifier.create(guarded.findByDocumentNumber("DOC-1")).expectNextCount(1).verifyComplete();
+        assertThat(store.docLookups.get()).isEqualTo(1);
+
+        StepVerifier.create(guarded.insert(customer("C2", "NO-EXISTE"))).expectNextCount(1).verifyComplete();
+        assertThat(guard.definitelyAbsent("NO-EXISTE")).isFalse();
+    }
+
+    @Test
+    void proyeccion_reutilizaLaEntidadCacheada_ySinEllaNoPueblaLaCache() {
+        store.data.put("C1", customer("C1", "DOC-1"));
+        CustomerFields fields = CustomerFields.parse("documentNumber");
+
+        StepVerifier.create(repo.findByDocumentNumber("DOC-1", fields)).expectNextCount(1).verifyComplete();
+        assertThat(docCache.synchronous().getIfPresent("DOC-1")).isNull();
+
+        StepVerifier.create(repo.findByDocumentNumber("DOC-1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repo.findByDocumentNumber("DOC-1", fields))
+                .assertNext(c -> assertThat(c.getFullName()).isEqualTo("N-C1"))
+                .verifyComplete();
+        assertThat(store.docLookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void sinFiltro_laLecturaVaciaQuedaEnLaCacheNegativa() {
+        MissingDocumentGuard guard = new MissingDocumentGuard(Duration.ofSeconds(30), 1_000, 1_000, 0.01);
+        CachingCustomerRepository guarded =
+                new CachingCustomerRepository(store, idCache, docCache,
+                        CachingCustomerRepository.Options.builder().missingDocs(guard).build());
+
+        StepVerifier.create(guarded.findByDocumentNumber("DOC-X")).verifyComplete();
+        StepVerifier.create(guarded.findByDocumentNumber("DOC-X")).verifyComplete();
+        assertThat(store.docLookups.get()).isEqualTo(1);
+
+        guard.distrust(); // p. ej. un cambio remoto sin documento conocido
+        StepVerifier.create(guarded.findByDocumentNumber("DOC-X")).verifyComplete();
+        assertThat(store.docLookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void lecturas_seClasificanEnCarga_acierto_yEsperaCompartida() {
+        List<CacheLookupRecorder.Lookup> seen = new CopyOnWriteArrayList<>();
+        repo = new CachingCustomerRepository(store, idCache, docCache, CachingCustomerRepository.Options.builder()
+                .lookups((cache, lookup, nanos) -> seen.add(lookup)).build());
+        store.data.put("C1", customer("C1", "DOC-1"));
+        Sinks.One<Customer> slowRead = Sinks.one();
+        store.nextFindById = slowRead.asMono();
+
+        CompletableFuture<Customer> first = repo.findById("C1").toFuture();
+        CompletableFuture<Customer> second = repo.findById("C1").toFuture();
+        slowRead.tryEmitValue(store.data.get("C1"));
+        first.join();
+        second.join();
+        StepVerifier.create(repo.findById("C1")).expectNextCount(1).verifyComplete();
+
+        // las dos primeras terminan juntas, en cualquier orden
+        assertThat(seen).containsExactlyInAnyOrder(CacheLookupRecorder.Lookup.LOAD,
+                CacheLookupRecorder.Lookup.COALESCED, CacheLookupRecorder.Lookup.HIT);
+    }
+
+    @Test
+    void cargaLentaPorId_noRepuebla_elDocumentoDespuesDeUnaEscritura() {
+        store.data.put("C1", customer("C1", "DOC-OLD"));
+        Sinks.One<Customer> slowRead = Sinks.one();
+        store.nextFindById = slowRead.asMono();
+
+        Customer stale = store.data.get("C1").toBuilder().build();
+        CompletableFuture<Customer> pending = repo.findById("C1").toFuture();
+
+        // mientras la lectura está en vuelo, otro request cambia el documento
+        StepVerifier.create(repo.patch("C1", changeDoc("DOC-NEW"))).expectNextCount(1).verifyComplete();
+        slowRead.tryEmitValue(stale);
+        assertThat(pending.join().getDocumentNumber()).isEqualTo("DOC-OLD");
+
+        assertThat(docCache.synchronous().getIfPresent("DOC-OLD")).isNull();
+        assertThat(docCache.synchronous().getIfPresent("DOC-NEW").getDocumentNumber()).isEqualTo("DOC-NEW");
+        assertThat(idCache.synchronous().getIfPresent("C1").getDocumentNumber()).isEqualTo("DOC-NEW");
+    }
+
+    // lecturas y escrituras concurrentes con latencias aleatorias: al terminar, todo lo cacheado
+    // debe coincidir con el almacén (nada borrado ni desactualizado sobrevive en ninguna clave)
+    @RepeatedTest(5)
+    void estres_lecturasYEscriturasConcurrentes_cachesCoherentes() {
+        int customers = 20;
+        for (int i = 0; i < customers; i++) store.data.put("C" + i, customer("C" + i, "DOC-" + i + "-0"));
+        store.latency = true;
+
+        Flux.range(0, 4_000)
+                .flatMap(n -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    String id = "C" + rnd.nextInt(customers);
+                    return switch (rnd.nextInt(6)) {
+                        case 0 -> repo.patch(id, changeDoc("DOC-" + id.substring(1) + "-" + n)).then();
+                        case 1 -> repo.deleteById(id)
+                                .then(Mono.fromRunnable(() -> store.data.putIfAbsent(id, customer(id, "DOC-" + id.substring(1) + "-r" + n))));
+                        case 2 -> repo.findByDocumentNumber(currentDoc(id)).then();
+                        default -> repo.findById(id).then();
+                    };
+                }, 64)
+                .subscribeOn(Schedulers.parallel())
+                .blockLast(Duration.ofSeconds(60));
+
+        idCache.synchronous().asMap().forEach((id, cached) -> {
+            Customer actual = store.data.get(id);
+            assertThat(actual).as("id %s", id).isNotNull();
+            assertThat(cached.getDocumentNumber()).as("id %s", id).isEqualTo(actual.getDocumentNumber());
+        });
+        docCache.synchronous().asMap().forEach((doc, cached) -> {
+            Customer actual = store.data.get(cached.getId());
+            assertThat(actual).as("doc %s", doc).isNotNull();
+            assertThat(actual.getDocumentNumber()).as("doc %s", doc).isEqualTo(doc);
+        });
+    }
+
+    @Test
+    void dosReplicas_escrituraEnUna_refrescaYBorraEnLaOtra() {
+        Sinks.Many<CustomerInvalidation> wire = Sinks.many().multicast().directBestEffort();
+        AsyncCache<String, Customer> idB = Caffeine.newBuilder().buildAsync();
+        AsyncCache<String, Customer> docB = Caffeine.newBuilder().buildAsync();
+        CachingCustomerRepository nodeA = new CachingCustomerRepository(store, idCache, docCache,
+                CachingCustomerRepository.Options.builder().bus(new InMemoryInvalidationBus(wire, "A")).build());
+        CachingCustomerRepository nodeB = new CachingCustomerRepository(store, idB, docB,
+                CachingCustomerRepository.Options.builder().bus(new InMemoryInvalidationBus(wire, "B")).build());
+        CacheInvalidationListener listenerB = new CacheInvalidationListener(
+                new InMemoryInvalidationBus(wire, "B"), nodeB, new SimpleMeterRegistry());
+        listenerB.start();
+        try {
+            store.data.put("C1", customer("C1", "DOC-1"));
+            StepVerifier.create(nodeB.findById("C1")).expectNextCount(1).verifyComplete();
+            assertThat(docB.synchronous().getIfPresent("DOC-1")).isNotNull();
+
+            StepVerifier.create(nodeA.patch("C1", changeDoc("DOC-2"))).expectNextCount(1).verifyComplete();
+            assertThat(idB.synchronous().getIfPresent("C1").getDocumentNumber()).isEqualTo("DOC-2");
+            assertThat(docB.synchronous().getIfPresent("DOC-1")).isNull();
+
+            StepVerifier.create(nodeA.deleteById("C1")).verifyComplete();
+            assertThat(idB.synchronous().getIfPresent("C1")).isNull();
+        } finally {
+            listenerB.stop();
+        }
+    }
+
+    @Test
+    void cacheNegativa_altaEnOtraReplica_dejaDeResponderInexistente() {
+        Sinks.Many<CustomerInvalidation> wire = Sinks.many().multicast().directBestEffort();
+        MissingDocumentGuard guardB = new MissingDocumentGuard(Duration.ofSeconds(30), 1_000, 1_000, 0.01);
+        CachingCustomerRepository nodeA = new CachingCustomerRepository(store, idCache, docCache,
+                CachingCustomerRepository.Options.builder().bus(new InMemoryInvalidationBus(wire, "A")).build());
+        CachingCustomerRepository nodeB = new CachingCustomerRepository(store,
+                Caffeine.newBuilder().buildAsync(), Caffeine.newBuilder().buildAsync(),
+                CachingCustomerRepository.Options.builder()
+                        .bus(new InMemoryInvalidationBus(wire, "B")).missingDocs(guardB).build());
+        CacheInvalidationListener listenerB = new CacheInvalidationListener(
+                new InMemoryInvalidationBus(wire, "B"), nodeB, new SimpleMeterRegistry());
+        listenerB.start();
+        try {
+            StepVerifier.create(guardB.rebuild(store.findAllDocumentNumbers())).expectNext(0L).verifyComplete();
+            StepVerifier.create(nodeB.findByDocumentNumber("DOC-9")).verifyComplete();
+            assertThat(guardB.definitelyAbsent("DOC-9")).isTrue();
+
+            StepVerifier.create(nodeA.insert(customer("C9", "DOC-9"))).expectNextCount(1).verifyComplete();
+
+            assertThat(guardB.definitelyAbsent("DOC-9")).isFalse();
+            StepVerifier.create(nodeB.findByDocumentNumber("DOC-9"))
+                    .assertNext(c -> assertThat(c.getId()).isEqualTo("C9"))
+                    .verifyComplete();
+        } finally {
+            listenerB.stop();
+        }
+    }
+
+    @Test
+    void patchRechazadoPorVersion_noDescartaElFiltroEnNingunaReplica() {
+        Sinks.Many<CustomerInvalidation> wire = Sinks.many().multicast().directBestEffort();
+        MissingDocumentGuard guardA = new MissingDocumentGuard(Duration.ofSeconds(30), 1_000, 1_000, 0.01);
+        MissingDocumentGuard guardB = new MissingDocumentGuard(Duration.ofSeconds(30), 1_000, 1_000, 0.01);
+        CachingCustomerRepository nodeA = new CachingCustomerRepository(store, idCache, docCache,
+                CachingCustomerRepository.Options.builder()
+                        .bus(new InMemoryInvalidationBus(wire, "A")).missingDocs(guardA).build());
+        CachingCustomerRepository nodeB = new CachingCustomerRepository(store,
+                Caffeine.newBuilder().buildAsync(), Caffeine.newBuilder().buildAsync(),
+                CachingCustomerRepository.Options.builder()
+                        .bus(new InMemoryInvalidationBus(wire, "B")).missingDocs(guardB).build());
+        CacheInvalidationListener listenerB = new CacheInvalidationListener(
+                new InMemoryInvalidationBus(wire, "B"), nodeB, new SimpleMeterRegistry());
+        listenerB.start();
+        try {
+            store.data.put("C1", customer("C1", "DOC-1"));
+            StepVerifier.create(guardA.rebuild(store.findAllDocumentNumbers())).expectNext(1L).verifyComplete();
+            StepVerifier.create(guardB.rebuild(store.findAllDocumentNumbers())).expectNext(1L).verifyComplete();
+            StepVerifier.create(nodeA.findById("C1")).expectNextCount(1).verifyComplete();
+
+            // el 412 de un If-Match viejo
+            store.failPatch = new OptimisticLockingFailureException("versión 1");
+            StepVerifier.create(nodeA.patch("C1", changeDoc("DOC-2")))
+                    .expectError(OptimisticLockingFailureException.class)
+                    .verify();
+
+            assertThat(guardA.isReady()).isTrue();
+            assertThat(guardB.isReady()).isTrue();
+            assertThat(idCache.synchronous().getIfPresent("C1")).isNotNull();
+
+            // un timeout sí deja la duda: el documento nuevo pasa a "puede existir" en ambas
+            store.failPatch = new IllegalStateException(new TimeoutException());
+            StepVerifier.create(nodeA.patch("C1", changeDoc("DOC-3"))).expectError().verify();
+
+            assertThat(idCache.synchronous().getIfPresent("C1")).isNull();
+            assertThat(guardA.isReady()).isTrue();
+            assertThat(guardB.isReady()).isTrue();
+            assertThat(guardA.definitelyAbsent("DOC-3")).isFalse();
+            assertThat(guardB.definitelyAbsent("DOC-3")).isFalse();
+        } finally {
+            listenerB.stop();
+        }
+    }
+
+    @Test
+    void conBatchLoader_elPedidoQueEsperaElLoteCuentaUnaIdaAMongo() {
+        store.data.put("C1", customer("C1", "DOC-1"));
+        CachingCustomerRepository batched = new CachingCustomerRepository(store, idCache, docCache,
+                CachingCustomerRepository.Options.builder()
+                        .batchLoader(new CustomerBatchLoader(store, Duration.ofMillis(1), 10,
+                                Schedulers.parallel(), new SimpleMeterRegistry()))
+                        .build());
+        AtomicInteger roundTrips = new AtomicInteger();
+        Context request = Context.of(MeteredCustomerRepository.ROUND_TRIPS, roundTrips);
+
+        StepVerifier.create(batched.findById("C1").contextWrite(request)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(batched.findById("C1").contextWrite(request)).expectNextCount(1).verifyComplete();
+
+        assertThat(roundTrips).hasValue(1);   // el segundo es un acierto
+    }
+
+    private String currentDoc(String id) {
+        Customer c = store.data.get(id);
+        return c == null ? "DOC-none" : c.getDocumentNumber();
+    }
+
+    /** Almacén en memoria con lecturas que devuelven la foto tomada al suscribirse (posiblemente vieja). */
+    static class FakeStore implements CustomerRepositoryPort {
+        final Map<String, Customer> data = new ConcurrentHashMap<>();
+        volatile boolean latency;
+        volatile Mono<Customer> nextFindById;
+        volatile RuntimeException failPatch;
+        final AtomicInteger docLookups = new AtomicInteger();
+
+        private <T> Mono<T> delayed(Mono<T> m) {
+            return latency ? m.delayElement(Duration.ofMillis(ThreadLocalRandom.current().nextInt(3))) : m;
+        }
+
+        private Customer copy(Customer c) { return c == null ? null : c.toBuilder().build(); }
+
+        @Override public Mono<Customer> findById(String id) {
+            Mono<Customer> next = nextFindById;
+            if (next != null) { nextFindById = null; return next; }
+            return delayed(Mono.fromCallable(() -> copy(data.get(id))));
+        }
+        @Override public Mono<Customer> findByDocumentNumber(String doc) {
+            docLookups.incrementAndGet();
+            return delayed(Mono.fromCallable(() -> data.values().stream()
+                    .filter(c -> doc.equals(c.getDocumentNumber())).findFirst().map(this::copy).orElse(null)));
+        }
+        @Override public Mono<Customer> patch(String id, CustomerPatch patch) {
+            if (failPatch != null) return Mono.error(failPatch);
+            return delayed(Mono.fromCallable(() -> {
+                Customer[] previous = new Customer[1];
+                data.computeIfPresent(id, (k, c) -> {
+                    previous[0] = copy(c);
+                    return patch.applyTo(copy(c));
+                });
+                return previous[0];
+            }));
+        }
+        @Override public Mono<Customer> findAndDeleteById(String id) {
+            return delayed(Mono.fromCallable(() -> copy(data.remove(id))));
+        }
+        @Override public Mono<Void> deleteById(String id) { return findAndDeleteById(id).then(); }
+        @Override public Flux<Customer> findAllById(Collection<String> ids) {
+            return Flux.fromIterable(ids).map(data::get).filter(Objects::nonNull).map(this::copy);
+        }
+        @Override public Flux<Customer> findAllByDocumentNumber(Collection<String> docs) {
+            return Flux.fromIterable(data.values()).filter(c -> docs.contains(c.getDocumentNumber())).map(this::copy);
+        }
+        @Override public Flux<Customer> findAll() { return Flux.fromIterable(data.values()); }
+        @Override public Flux<Customer> findByType(CustomerType type) { return findAll().filter(c -> c.getType() == type); }
+        @Override public Flux<Customer> findPage(CustomerType type, String afterId, int limit) { return Flux.empty(); }
+        @Override public Mono<Customer> save(Customer c) { data.put(c.getId(), copy(c)); return Mono.just(c); }
+        @Override public Mono<Customer> insert(Customer c) { return save(c); }
+        @Override public Flux<String> findExistingDocumentNumbers(Collection<String> docs) { return Flux.empty(); }
+        @Override public Flux<String> findAllDocumentNumbers() {
+            return Flux.fromIterable(data.values()).map(Customer::getDocumentNumber);
+        }
+        @Override public Mono<BulkInsertResult> insertAll(List<Customer> customers) { return Mono.empty(); }
+        @Override public Flux<Customer> findByEmail(String email, String afterId, int limit) { return Flux.empty(); }
+        @Override public Flux<Customer> findByPhone(String phone, String afterId, int limit) { return Flux.empty(); }
+        @Override public Flux<Customer> findByNamePrefix(String prefix, String afterKey, String afterId, int limit) { return Flux.empty(); }
+        @Override public Mono<Map<CustomerShape, Long>> countByShape() { return Mono.just(Map.of()); }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bootcamp.customer.infrastructure.out.cache;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCacheRegistryTest {
+
+    private static Customer customer(int i) {
+        return Customer.builder().id("C" + i).documentNumber("DOC-" + i).type(CustomerType.PERSONAL)
+                .fullName("Cliente " + i).email("c" + i + "@mail.com").phones(List.of("999000" + i)).version(0L).build();
+    }
+
+    @Test
+    void pesaPorMemoriaEstimada_yAchicaEnCaliente() {
+        Cache<String, Customer> cache = Caffeine.newBuilder()
+                .maximumWeight(1_000_000).weigher(CustomerWeigher.INSTANCE)
+                .expireAfterWrite(Duration.ofMinutes(10)).recordStats()
+                .executor(Runnable::run)
+                .build();
+        CustomerCacheRegistry registry = new CustomerCacheRegistry().register("by-id", cache);
+        IntStream.range(0, 1_000).forEach(i -> cache.put("C" + i, customer(i)));
+
+        CustomerCacheRegistry.CacheReport before = registry.report("by-id").orElseThrow();
+        assertThat(before.getEntries()).isEqualTo(1_000);
+        assertThat(before.getEstimatedBytes()).isGreaterThan(1_000L * CustomerWeigher.ENTRY_OVERHEAD);
+
+        long half = before.getEstimatedBytes() / 2;
+        CustomerCacheRegistry.CacheReport after = registry.resize("by-id", half, Duration.ofMinutes(5)).orElseThrow();
+
+        assertThat(after.getEstimatedBytes()).isLessThanOrEqualTo(half);
+        assertThat(after.getEvictions()).isPositive();
+        assertThat(after.getExpireAfterWrite()).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void cacheDesconocida_noSeEncuentra() {
+        assertThat(new CustomerCacheRegistry().resize("nope", 1L, null)).isEmpty();
+    }
+}
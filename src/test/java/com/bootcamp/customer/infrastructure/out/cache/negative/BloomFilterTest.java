@@ -0,0 +1,21 @@
+package com.bootcamp.customer.infrastructure.out.cache.negative;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void sinFalsosNegativos_yFalsosPositivosCercaDeLoPedido() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("DOC-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("DOC-" + i))).isTrue();
+
+        long falsePositives = IntStream.range(10_000, 110_000).filter(i -> filter.mightContain("DOC-" + i)).count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bootcamp.customer.infrastructure.out.cache.snapshot;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCacheSnapshotTest {
+
+    private static final Instant TAKEN = Instant.parse("2024-05-01T10:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private static Customer customer(int i) {
+        return Customer.builder().id("C" + i).documentNumber("DOC-" + i).type(CustomerType.PERSONAL)
+                .fullName("Cliente ñ " + i).email("c" + i + "@mail.com").phones(List.of("999000" + i))
+                .version((long) i).lastModified(TAKEN.minusSeconds(i)).build();
+    }
+
+    @Test
+    void escribeYLee_conservaCamposYCachesDeCadaCliente() throws Exception {
+        Customer ambos = customer(1);
+        Customer soloId = customer(2).toBuilder().type(null).email(null).phones(null).version(null).lastModified(null).build();
+        Customer soloDoc = customer(3);
+        Path file = dir.resolve("cache.snapshot");
+
+        new CustomerCacheSnapshot(TAKEN, List.of(ambos, soloId), List.of(ambos, soloDoc)).write(file);
+        CustomerCacheSnapshot read = CustomerCacheSnapshot.read(file, Duration.ofMinutes(5), TAKEN.plusSeconds(60)).orElseThrow();
+
+        assertThat(read.getTakenAt()).isEqualTo(TAKEN);
+        assertThat(read.getById()).containsExactly(ambos, soloId);
+        assertThat(read.getByDoc()).containsExactly(ambos, soloDoc);
+        assertThat(read.getById().get(0)).isSameAs(read.getByDoc().get(0));   // guardado una sola vez
+    }
+
+    @Test
+    void snapshotViejoODanado_seDescarta() throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        new CustomerCacheSnapshot(TAKEN, List.of(customer(1)), List.of()).write(file);
+
+        assertThat(CustomerCacheSnapshot.read(file, Duration.ofMinutes(5), TAKEN.plus(Duration.ofMinutes(6)))).isEmpty();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(40);
+            int b = raf.read();
+            raf.seek(40);
+            raf.write(b ^ 0xFF);
+        }
+        assertThat(CustomerCacheSnapshot.read(file, Duration.ofMinutes(5), TAKEN)).isEmpty();
+        assertThat(CustomerCacheSnapshot.read(dir.resolve("no-existe"), Duration.ofMinutes(5), TAKEN)).isEmpty();
+    }
+
+    @Test
+    void load_noPrecargaLaCacheCuyoTtlYaVencioDesdeElSnapshot() throws Exception {
+        Path file = dir.resolve("cache.snapshot");
+        new CustomerCacheSnapshot(TAKEN, List.of(customer(1)), List.of(customer(1))).write(file);
+        AsyncCache<String, Customer> byId = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(10)).buildAsync();
+        AsyncCache<String, Customer> byDoc = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(2)).buildAsync();
+        Clock clock = Clock.fixed(TAKEN.plus(Duration.ofMinutes(3)), ZoneOffset.UTC);
+
+        int loaded = new CacheSnapshotLifecycle(byId, byDoc, file, Duration.ofMinutes(1), Duration.ofMinutes(5), 100, clock).load();
+
+        assertThat(loaded).isEqualTo(1);
+        assertThat(byId.synchronous().getIfPresent("C1")).isEqualTo(customer(1));
+        assertThat(byDoc.synchronous().getIfPresent("DOC-1")).isNull();
+    }
+}
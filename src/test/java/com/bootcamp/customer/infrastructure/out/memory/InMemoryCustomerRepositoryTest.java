@@ -0,0 +1,64 @@
+package com.bootcamp.customer.infrastructure.out.memory;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryCustomerRepositoryTest {
+
+    private static InMemoryCustomerRepository repo(int seed) {
+        CustomerProperties props = new CustomerProperties();
+        props.getInMemory().setSeedCustomers(seed);
+        return new InMemoryCustomerRepository(props);
+    }
+
+    @Test
+    void documentoRepetido_fallaComoElIndiceUnico() {
+        InMemoryCustomerRepository repo = repo(10);
+
+        StepVerifier.create(repo.insert(Customer.builder().type(CustomerType.PERSONAL).documentNumber("00000003").build()))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    void patch_devuelveLaImagenPrevia_yRespetaLaVersionEsperada() {
+        InMemoryCustomerRepository repo = repo(10);
+        String id = String.format("%024x", 4);
+        CustomerPatch patch = new CustomerPatch();
+        patch.getSet().put(CustomerPatch.EMAIL, "nuevo@correo.com");
+        patch.setExpectedVersion(0L);
+
+        StepVerifier.create(repo.patch(id, patch))
+                .assertNext(previous -> assertThat(previous.getEmail()).isEqualTo("cliente4@correo.com"))
+                .verifyComplete();
+        StepVerifier.create(repo.findByDocumentNumber("00000004"))
+                .assertNext(c -> assertThat(c.getEmail()).isEqualTo("nuevo@correo.com"))
+                .verifyComplete();
+
+        // la versión 0 ya no es la vigente
+        StepVerifier.create(repo.patch(id, patch))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void busquedaPorPrefijo_paginaPorNombreEId() {
+        InMemoryCustomerRepository repo = repo(10);
+
+        StepVerifier.create(repo.findByNamePrefix("empresa", null, null, 2).map(Customer::getBusinessName))
+                .expectNext("Empresa 1", "Empresa 3")
+                .verifyComplete();
+        StepVerifier.create(repo.findByNamePrefix("empresa", "empresa 3", String.format("%024x", 3), 2)
+                        .map(Customer::getBusinessName))
+                .expectNext("Empresa 5", "Empresa 7")
+                .verifyComplete();
+    }
+}
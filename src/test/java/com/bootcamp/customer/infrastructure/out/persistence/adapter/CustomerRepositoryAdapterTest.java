@@ -0,0 +1,150 @@
+package com.bootcamp.customer.infrastructure.out.persistence.adapter;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerPatch;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+import com.bootcamp.customer.infrastructure.out.persistence.mapper.CustomerDocumentMapper;
+import com.bootcamp.customer.infrastructure.out.persistence.repository.ReactiveCustomerMongoRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// las búsquedas van contra las claves normalizadas, no contra email/phones tal como se guardaron
+@ExtendWith(MockitoExtension.class)
+class CustomerRepositoryAdapterTest {
+
+    @Mock
+    ReactiveCustomerMongoRepository repo;
+
+    @Mock
+    ReactiveMongoTemplate template;
+
+    private CustomerRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new CustomerRepositoryAdapter(repo, template, new CustomerProperties());
+    }
+
+    private Query searched() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(template).find(query.capture(), eq(CustomerDocument.class));
+        return query.getValue();
+    }
+
+    @Test
+    void findByEmail_filtraPorEmailKey_paginadoPorId() {
+        when(template.find(any(Query.class), eq(CustomerDocument.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(adapter.findByEmail("ana@correo.com", "C5", 20)).verifyComplete();
+
+        Query q = searched();
+        assertThat(q.getQueryObject().get(CustomerRepositoryAdapter.EMAIL_KEY)).isEqualTo("ana@correo.com");
+        assertThat(q.getQueryObject()).doesNotContainKey("email");
+        assertThat(q.getQueryObject().get("id", Document.class).get("$gt")).isEqualTo("C5");
+        assertThat(q.getSortObject()).isEqualTo(new Document("id", 1));
+        assertThat(q.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void findByPhone_filtraPorPhoneKeys() {
+        when(template.find(any(Query.class), eq(CustomerDocument.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(adapter.findByPhone("999-111", null, 10)).verifyComplete();
+
+        Query q = searched();
+        assertThat(q.getQueryObject().get(CustomerRepositoryAdapter.PHONE_KEYS)).isEqualTo("999-111");
+        assertThat(q.getQueryObject()).doesNotContainKeys("phones", "id");
+    }
+
+    @Test
+    void findByNamePrefix_unaConsultaPorClave_ordenadaPorClaveEId_conCursorKeyset() {
+        when(template.find(any(Query.class), eq(CustomerDocument.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(adapter.findByNamePrefix("ana", "ana lopez", "C5", 10)).verifyComplete();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(template, times(2)).find(queries.capture(), eq(CustomerDocument.class));
+        assertThat(queries.getAllValues()).extracting(q -> q.getSortObject().keySet().iterator().next())
+                .containsExactlyInAnyOrder(CustomerRepositoryAdapter.FULL_NAME_KEY, CustomerRepositoryAdapter.BUSINESS_NAME_KEY);
+        for (Query q : queries.getAllValues()) {
+            String key = q.getSortObject().keySet().iterator().next();
+            assertThat(q.getSortObject()).isEqualTo(new Document(key, 1).append("id", 1));
+            assertThat(q.getLimit()).isEqualTo(10);
+            List<Document> and = q.getQueryObject().getList("$and", Document.class);
+            assertThat(and.get(0)).containsOnlyKeys(key);
+            List<Document> cursor = and.get(1).getList("$or", Document.class);
+            assertThat(cursor.get(0).get(key, Document.class).get("$gt")).isEqualTo("ana lopez");
+            assertThat(cursor.get(1).get(key)).isEqualTo("ana lopez");
+            assertThat(cursor.get(1).get("id", Document.class).get("$gt")).isEqualTo("C5");
+        }
+    }
+
+    @Test
+    void findByNamePrefix_mezclaEnOrden_yQuienCoincidePorLosDosNombresSaleUnaVez() {
+        CustomerDocument ambos = CustomerDocument.builder().id("C1").fullName("Ana Zeta").businessName("Ana Alfa").build();
+        CustomerDocument persona = CustomerDocument.builder().id("C2").fullName("Ana Beta").build();
+        CustomerDocument empresa = CustomerDocument.builder().id("C3").businessName("Ana Gamma").build();
+        // cada consulta llega ordenada por su clave
+        when(template.find(argThat(q -> q != null && q.getSortObject().containsKey(CustomerRepositoryAdapter.FULL_NAME_KEY)),
+                eq(CustomerDocument.class))).thenReturn(Flux.just(persona, ambos));
+        when(template.find(argThat(q -> q != null && q.getSortObject().containsKey(CustomerRepositoryAdapter.BUSINESS_NAME_KEY)),
+                eq(CustomerDocument.class))).thenReturn(Flux.just(ambos, empresa));
+
+        StepVerifier.create(adapter.findByNamePrefix("ana", null, null, 10).map(Customer::getId))
+                .expectNext("C1", "C2", "C3")
+                .verifyComplete();
+    }
+
+    @Test
+    void patch_actualizaLasClavesEnElMismoFindAndModify() {
+        when(template.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(CustomerDocument.class))).thenReturn(Mono.empty());
+        CustomerPatch patch = new CustomerPatch();
+        patch.getSet().put(CustomerPatch.EMAIL, "ana@correo.com");
+        patch.getSet().put(CustomerPatch.PHONES, List.of());
+
+        StepVerifier.create(adapter.patch("C1", patch)).verifyComplete();
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(template).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(CustomerDocument.class));
+        Document doc = update.getValue().getUpdateObject();
+        assertThat(doc.get("$set", Document.class).get(CustomerRepositoryAdapter.EMAIL_KEY)).isEqualTo("ana@correo.com");
+        assertThat(doc.get("$unset", Document.class)).containsKey(CustomerRepositoryAdapter.PHONE_KEYS);
+    }
+
+    @Test
+    void mapper_guardaLasClavesNormalizadas_aunqueElValorVengaSinNormalizar() {
+        Customer legacy = Customer.builder().id("C1").type(CustomerType.PERSONAL).documentNumber("DOC-1")
+                .email(" Ana@Correo.com ").phones(List.of(" 999-111", "999-111 ", " ")).build();
+
+        CustomerDocument d = CustomerDocumentMapper.toDoc(legacy);
+
+        assertThat(d.getEmailKey()).isEqualTo("ana@correo.com");
+        assertThat(d.getPhoneKeys()).containsExactly("999-111");
+    }
+}
@@ -0,0 +1,60 @@
+package com.bootcamp.customer.infrastructure.out.persistence.migration;
+
+import com.bootcamp.customer.config.CustomerProperties;
+import com.bootcamp.customer.infrastructure.out.persistence.document.CustomerDocument;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchKeyBackfillTest {
+
+    @Mock
+    ReactiveMongoTemplate template;
+
+    @Test
+    void soloActualizaSiLaVersionNoCambio_yCuentaLosModificados() {
+        CustomerDocument viejo = CustomerDocument.builder().id("C1").fullName("José Pérez").build();
+        CustomerDocument versionado = CustomerDocument.builder().id("C2").email("Ana@Correo.com").version(3L).build();
+        when(template.find(any(Query.class), eq(CustomerDocument.class))).thenReturn(Flux.just(viejo, versionado));
+        when(template.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(CustomerDocument.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)))
+                // C2 cambió entre la lectura y el update: no coincide y se saltea
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+        StepVerifier.create(new SearchKeyBackfill(template, new CustomerProperties()).backfill())
+                .expectNext(1L)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(template, times(2)).updateFirst(queries.capture(), any(UpdateDefinition.class), eq(CustomerDocument.class));
+        List<Document> filters = queries.getAllValues().stream().map(Query::getQueryObject).toList();
+        assertThat(filters).anySatisfy(f -> {
+            assertThat(f.get("id")).isEqualTo("C1");
+            assertThat(f.get("version", Document.class).get("$exists")).isEqualTo(false);
+        });
+        assertThat(filters).anySatisfy(f -> {
+            assertThat(f.get("id")).isEqualTo("C2");
+            assertThat(f.get("version")).isEqualTo(3L);
+        });
+    }
+}
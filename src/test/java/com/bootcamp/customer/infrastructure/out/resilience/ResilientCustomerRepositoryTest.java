@@ -0,0 +1,115 @@
+package com.bootcamp.customer.infrastructure.out.resilience;
+
+import com.bootcamp.customer.domain.model.Customer;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.domain.port.out.CustomerRepositoryPort;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientCustomerRepositoryTest {
+
+    @Mock
+    CustomerRepositoryPort store;
+
+    private CircuitBreaker breaker;
+    private CircuitBreaker bulkBreaker;
+    private ResilientCustomerRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        breaker = CircuitBreaker.ofDefaults("test");
+        bulkBreaker = CircuitBreaker.ofDefaults("test-bulk");
+        Bulkhead calls = Bulkhead.of("calls", BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build());
+        repo = new ResilientCustomerRepository(store, breaker, bulkBreaker, calls, Bulkhead.ofDefaults("bulk"),
+                Caffeine.newBuilder().build(),
+                ResilientCustomerRepository.Timeouts.builder()
+                        .read(Duration.ofMillis(50)).write(Duration.ofMillis(50))
+                        .bulk(Duration.ofSeconds(1)).scanIdle(Duration.ofMillis(50))
+                        .build());
+    }
+
+    private static Customer customer() {
+        return Customer.builder().id("C1").documentNumber("DOC-1").type(CustomerType.PERSONAL).version(0L).build();
+    }
+
+    @Test
+    void breakerAbierto_sirveLaUltimaCopia_porIdYPorDocumento() {
+        when(store.findById("C1")).thenReturn(Mono.just(customer()));
+        StepVerifier.create(repo.findById("C1")).expectNextCount(1).verifyComplete();
+
+        breaker.transitionToOpenState();
+
+        StepVerifier.create(repo.findById("C1")).expectNextMatches(c -> "C1".equals(c.getId())).verifyComplete();
+        StepVerifier.create(repo.findByDocumentNumber("DOC-1")).expectNextMatches(c -> "C1".equals(c.getId())).verifyComplete();
+    }
+
+    @Test
+    void breakerAbierto_sinCopia_fallaRapido() {
+        breaker.transitionToOpenState();
+        when(store.findById("C2")).thenReturn(Mono.just(customer()));
+
+        StepVerifier.create(repo.findById("C2")).expectError(CallNotPermittedException.class).verify();
+    }
+
+    @Test
+    void consultaLenta_cortaPorTimeout_yUsaLaCopia() {
+        when(store.findById("C1")).thenReturn(Mono.just(customer()), Mono.never());
+        StepVerifier.create(repo.findById("C1")).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(repo.findById("C1")).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void bulkheadLleno_rechazaAlInstante() {
+        when(store.insert(customer())).thenReturn(Mono.never());
+        when(store.save(customer())).thenReturn(Mono.just(customer()));
+
+        repo.insert(customer()).subscribe(); // ocupa el único permiso hasta su timeout
+
+        StepVerifier.create(repo.save(customer())).expectError(BulkheadFullException.class).verify(Duration.ofMillis(20));
+    }
+
+    @Test
+    void breakerMasivoAbierto_noAfectaLecturasPuntuales() {
+        when(store.findById("C1")).thenReturn(Mono.just(customer()));
+        when(store.findAll()).thenReturn(Flux.just(customer()));
+
+        bulkBreaker.transitionToOpenState();
+
+        StepVerifier.create(repo.findAll()).expectError(CallNotPermittedException.class).verify();
+        StepVerifier.create(repo.findById("C1")).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void listadoSinDemanda_cortaPorTimeout_sinContarComoFallo() {
+        when(store.findAll()).thenReturn(Flux.just(customer(), customer(), customer()));
+
+        // el consumidor pide uno y no pide más: el timeout entre documentos salta igual
+        StepVerifier.create(repo.findAll(), 1)
+                .expectNextCount(1)
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(bulkBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        assertThat(breaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+}
@@ -0,0 +1,252 @@
+package com.bootcamp.customer.load;
+
+import com.bootcamp.customer.CustomerApplication;
+import com.bootcamp.customer.domain.model.CustomerType;
+import com.bootcamp.customer.infrastructure.in.web.dto.CustomerDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Generador de carga HTTP para los endpoints de CustomerController.
+ * <p>
+ * Sin {@code --base-url} levanta la aplicación en este proceso con el perfil {@code inmemory}
+ * (sin Mongo ni Eureka) y los parámetros {@code --store-*} del almacén sintético. Cada
+ * trabajador es un lazo cerrado (envía, espera, repite) con su propio {@link Random} derivado de
+ * {@code --seed}: la secuencia de pedidos es la misma en cada corrida. Informa throughput y
+ * percentiles por operación y los deja en JSON para comparar corridas.
+ * <pre>
+ * ./mvnw -P load verify -Dload.args="--duration 60s --concurrency 128 --store-latency 2ms"
+ * </pre>
+ * Al ser de lazo cerrado, si el servidor se frena también se frena la carga: los percentiles
+ * subestiman la espera que tendría un tráfico de llegada constante.
+ */
+public final class CustomerLoadDriver {
+
+    // operación -> peso en la mezcla
+    private static final String DEFAULT_MIX = "byId=55,byDoc=20,missByDoc=5,batch=5,page=5,update=8,create=2";
+
+    private final Map<String, String> opts;
+    private final Map<String, ConcurrentHistogram> latencies = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new HashMap<>();
+    private List<String> ids;
+    private List<String> docs;
+    private List<CustomerType> types;
+    private WebClient client;
+
+    private CustomerLoadDriver(Map<String, String> opts) {
+        this.opts = opts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new CustomerLoadDriver(opts).run();
+        System.exit(0);
+    }
+
+    private String opt(String name, String def) {
+        return opts.getOrDefault(name, def);
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private void run() throws IOException {
+        ConfigurableApplicationContext app = null;
+        String baseUrl = opts.get("base-url");
+        if (baseUrl == null) {
+            app = new SpringApplicationBuilder(CustomerApplication.class)
+                    .profiles("inmemory")
+                    .properties(
+                            "server.port=0",
+                            "spring.cloud.config.enabled=false",
+                            "customer.in-memory.seed-customers=" + opt("customers", "10000"),
+                            "customer.in-memory.latency=" + opt("store-latency", "2ms"),
+                            "customer.in-memory.jitter=" + opt("store-jitter", "1ms"),
+                            "customer.in-memory.error-rate=" + opt("store-error-rate", "0"))
+                    .run();
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        }
+        client = WebClient.builder().baseUrl(baseUrl).build();
+        try {
+            loadKeys(Integer.parseInt(opt("customers", "10000")));
+            Map<String, Integer> mix = parseMix(opt("mix", DEFAULT_MIX));
+            mix.keySet().forEach(op -> {
+                latencies.put(op, new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3));
+                errors.put(op, new AtomicLong());
+            });
+            int concurrency = Integer.parseInt(opt("concurrency", "64"));
+            long seed = Long.parseLong(opt("seed", "42"));
+
+            drive(mix, concurrency, seed, duration(opt("warmup", "10s")));
+            latencies.values().forEach(Histogram::reset);
+            errors.values().forEach(e -> e.set(0));
+            Duration measured = duration(opt("duration", "30s"));
+            drive(mix, concurrency, seed + 1, measured);
+
+            report(measured, concurrency, new File(opt("out", "target/load-report.json")));
+        } finally {
+            if (app != null) app.close();
+        }
+    }
+
+    // ids y documentos existentes: se leen del propio servicio (por páginas, el servicio limita
+    // el tamaño) para que sirva contra cualquier entorno
+    private void loadKeys(int max) {
+        List<CustomerDto> all = new ArrayList<>();
+        String after = null;
+        while (all.size() < max) {
+            String cursor = after;
+            List<CustomerDto> page = client.get()
+                    .uri(u -> {
+                        u.path("/customers").queryParam("limit", Math.min(1_000, max - all.size()));
+                        if (cursor != null) u.queryParam("after", cursor);
+                        return u.build();
+                    })
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .retrieve().bodyToFlux(CustomerDto.class)
+                    .collectList().block();
+            if (page == null || page.isEmpty()) break;
+            all.addAll(page);
+            after = page.get(page.size() - 1).getId();
+        }
+        if (all.isEmpty()) throw new IllegalStateException("el servicio no tiene clientes para la carga");
+        ids = all.stream().map(CustomerDto::getId).toList();
+        docs = all.stream().map(CustomerDto::getDocumentNumber).toList();
+        types = all.stream().map(CustomerDto::getType).toList();
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split("=");
+            out.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return out;
+    }
+
+    private void drive(Map<String, Integer> mix, int concurrency, long seed, Duration length) {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<String> wheel = new ArrayList<>();
+        mix.forEach((op, weight) -> { for (int i = 0; i < weight; i++) wheel.add(op); });
+        Flux.range(0, concurrency)
+                .flatMap(worker -> {
+                    Random rnd = new Random(seed * 31 + worker);
+                    AtomicLong sequence = new AtomicLong();
+                    return Mono.defer(() -> {
+                                String op = wheel.get(rnd.nextInt(wheel.size()));
+                                Mono<?> call = request(op, rnd, worker, sequence.incrementAndGet());
+                                long t0 = System.nanoTime();
+                                return call.doOnSuccess(r -> latencies.get(op).recordValue(System.nanoTime() - t0))
+                                        .onErrorResume(e -> {
+                                            errors.get(op).incrementAndGet();
+                                            return Mono.empty();
+                                        })
+                                        .then();
+                            })
+                            .repeat(() -> System.nanoTime() < deadline);
+                }, concurrency)
+                .blockLast();
+    }
+
+    private Mono<?> request(String op, Random rnd, int worker, long n) {
+        int i = rnd.nextInt(ids.size());
+        String id = ids.get(i);
+        return switch (op) {
+            case "byId" -> get("/customers/" + id);
+            case "byDoc" -> get("/customers/doc/" + docs.get(rnd.nextInt(docs.size())));
+            case "missByDoc" -> get("/customers/doc/NX" + rnd.nextInt(1_000_000));
+            case "page" -> client.get().uri(u -> u.path("/customers").queryParam("after", id).queryParam("limit", 50).build())
+                    .retrieve().toBodilessEntity();
+            case "batch" -> client.post().uri("/customers/batch")
+                    .bodyValue(Map.of("ids", rnd.ints(20, 0, ids.size()).mapToObj(ids::get).toList()))
+                    .retrieve().toBodilessEntity();
+            // mismo documento y tipo: solo cambia el correo
+            case "update" -> client.put().uri("/customers/" + id)
+                    .bodyValue(dto(types.get(i), docs.get(i), "correo" + n + "@carga.com"))
+                    .retrieve().toBodilessEntity();
+            case "create" -> client.post().uri("/customers")
+                    .bodyValue(dto(CustomerType.PERSONAL, "LD" + worker + "-" + n + "-" + rnd.nextInt(1_000_000), "nuevo" + n + "@carga.com"))
+                    .retrieve().toBodilessEntity();
+            default -> Mono.error(new IllegalArgumentException("operación desconocida: " + op));
+        };
+    }
+
+    // GET que puede responder vacío (200 sin cuerpo): se cuenta como respuesta válida
+    private Mono<?> get(String path) {
+        return client.get().uri(path).retrieve().toBodilessEntity();
+    }
+
+    private static CustomerDto dto(CustomerType type, String documentNumber, String email) {
+        CustomerDto d = new CustomerDto();
+        d.setType(type);
+        d.setDocumentNumber(documentNumber);
+        if (type == CustomerType.PERSONAL) d.setFullName("Carga");
+        else d.setBusinessName("Carga SAC");
+        d.setEmail(email);
+        return d;
+    }
+
+    private void report(Duration measured, int concurrency, File out) throws IOException {
+        Function<Double, Double> ms = nanos -> nanos / 1_000_000.0;
+        double seconds = measured.toMillis() / 1000.0;
+        Map<String, Object> ops = new LinkedHashMap<>();
+        long total = 0;
+        System.out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<String, ConcurrentHistogram> e : latencies.entrySet()) {
+            Histogram h = e.getValue();
+            long count = h.getTotalCount();
+            total += count;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", count);
+            row.put("errors", errors.get(e.getKey()).get());
+            row.put("throughput", count / seconds);
+            row.put("p50", ms.apply((double) h.getValueAtPercentile(50)));
+            row.put("p90", ms.apply((double) h.getValueAtPercentile(90)));
+            row.put("p99", ms.apply((double) h.getValueAtPercentile(99)));
+            row.put("p999", ms.apply((double) h.getValueAtPercentile(99.9)));
+            row.put("max", ms.apply((double) h.getMaxValue()));
+            ops.put(e.getKey(), row);
+            System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", e.getKey(), count,
+                    row.get("errors"), row.get("throughput"), row.get("p50"), row.get("p90"), row.get("p99"),
+                    row.get("p999"), row.get("max"));
+        }
+        System.out.printf("total: %d pedidos, %.1f req/s con %d conexiones%n", total, total / seconds, concurrency);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", seconds);
+        report.put("concurrency", concurrency);
+        report.put("options", opts);
+        report.put("throughput", total / seconds);
+        report.put("operations", ops);
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+        System.out.println("reporte: " + out.getAbsolutePath());
+    }
+}
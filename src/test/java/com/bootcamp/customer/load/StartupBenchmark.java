@@ -0,0 +1,229 @@
+package com.bootcamp.customer.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el arranque de la aplicación empaquetada: tiempo hasta el primer {@code GET
+ * /customers/{id}} con 200 (desde que se lanza el proceso) y memoria residente (RSS) en ese
+ * momento.
+ * <p>
+ * Cada variante se lanza {@code --runs} veces como proceso aparte, en un puerto libre:
+ * <ul>
+ *   <li>{@code jar}: el jar tal cual, sin AOT ni CDS (referencia)</li>
+ *   <li>{@code aot}: el jar extraído con {@code -Dspring.aot.enabled=true}</li>
+ *   <li>{@code aot-cds}: lo anterior + {@code -XX:SharedArchiveFile=application.jsa}</li>
+ * </ul>
+ * Antes se hace un arranque sin medir que calienta la caché de disco del sistema y consigue un
+ * id existente (o crea un cliente). Lo arma y lo corre el perfil Maven {@code fast-startup}:
+ * <pre>
+ * ./mvnw -P fast-startup verify -Daot.profiles=local,fast-startup -Dstartup.args="--runs 10 --variants jar,aot-cds"
+ * </pre>
+ * El reporte queda en JSON para comparar corridas; la RSS se lee de /proc (Linux) o de ps.
+ */
+public final class StartupBenchmark {
+
+    private final Map<String, String> opts;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private StartupBenchmark(Map<String, String> opts) {
+        this.opts = opts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        new StartupBenchmark(opts).run();
+        System.exit(0);
+    }
+
+    private String opt(String name, String def) {
+        return opts.getOrDefault(name, def);
+    }
+
+    private void run() throws Exception {
+        List<String> variants = Arrays.asList(opt("variants", "jar,aot,aot-cds").split(","));
+        int runs = Integer.parseInt(opt("runs", "5"));
+
+        String id = opt("id", null);
+        Launched warmup = launch(variants.get(0));
+        try {
+            awaitUp(warmup, warmup.managementUrl + "/actuator/health");
+            if (id == null) id = anyCustomerId(warmup.baseUrl);
+        } finally {
+            warmup.stop();
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String variant : variants) {
+            List<Map<String, Object>> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                Launched app = launch(variant);
+                try {
+                    long millis = awaitUp(app, app.baseUrl + "/customers/" + id);
+                    long rssKb = rssKb(app.process.pid());
+                    samples.add(Map.of("firstResponseMillis", millis, "rssMb", rssKb / 1024.0));
+                    System.out.printf("%-8s #%d  primer GET %5d ms  RSS %6.1f MB%n", variant, i + 1, millis, rssKb / 1024.0);
+                } finally {
+                    app.stop();
+                }
+            }
+            results.put(variant, summary(samples));
+        }
+        report(results, id, new File(opt("out", "target/startup-report.json")));
+    }
+
+    // ---------- procesos ----------
+
+    private record Launched(Process process, String baseUrl, String managementUrl, long startNanos) {
+        void stop() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(15, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    private Launched launch(String variant) throws IOException {
+        int port = freePort();
+        int managementPort = freePort();
+        Path cdsDir = Path.of(opt("cds-dir", "target/customer"));
+        Path jar = Path.of(opt("jar", "target/customer-0.0.1-SNAPSHOT.jar"));
+        Path extracted = cdsDir.resolve(jar.getFileName());
+
+        List<String> cmd = new ArrayList<>(List.of(javaBin()));
+        String extra = opt("jvm-args", "");
+        if (!extra.isBlank()) cmd.addAll(Arrays.asList(extra.trim().split("\\s+")));
+        switch (variant) {
+            case "jar" -> cmd.addAll(List.of("-jar", jar.toString()));
+            case "aot" -> cmd.addAll(List.of("-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+            case "aot-cds" -> cmd.addAll(List.of("-XX:SharedArchiveFile=" + cdsDir.resolve("application.jsa"),
+                    "-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+            default -> throw new IllegalArgumentException("variante desconocida: " + variant);
+        }
+        cmd.add("--server.port=" + port);
+        cmd.add("--management.server.port=" + managementPort);
+        cmd.add("--spring.profiles.active=" + opt("profiles", "local,fast-startup"));
+
+        File log = new File("target/startup-" + variant + ".log");
+        long t0 = System.nanoTime();
+        Process process = new ProcessBuilder(cmd)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        return new Launched(process, "http://localhost:" + port, "http://localhost:" + managementPort, t0);
+    }
+
+    private static String javaBin() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // sondea cada 10 ms; devuelve los ms desde que se lanzó el proceso hasta el primer 200
+    private long awaitUp(Launched app, String url) throws Exception {
+        Duration timeout = Duration.parse("PT" + opt("timeout", "120s").toUpperCase());
+        long deadline = app.startNanos + timeout.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(2))
+                .header("Accept", "application/json")
+                .GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!app.process.isAlive()) {
+                throw new IllegalStateException("la aplicación terminó al arrancar, ver target/startup-*.log");
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - app.startNanos);
+                }
+            } catch (IOException e) {
+                // todavía no escucha, o cortó la conexión mientras arranca
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("sin respuesta 200 en " + url + " tras " + timeout);
+    }
+
+    // ---------- datos ----------
+
+    private String anyCustomerId(String baseUrl) throws Exception {
+        HttpResponse<String> page = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/customers?limit=1"))
+                .header("Accept", "application/json").GET().build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode found = mapper.readTree(page.body());
+        if (found.isArray() && !found.isEmpty()) return found.get(0).get("id").asText();
+
+        String body = "{\"type\":\"PERSONAL\",\"documentNumber\":\"STARTUP-BENCH\",\"fullName\":\"Startup Bench\"}";
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/customers"))
+                .header("Content-Type", "application/json").header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("no hay clientes y no se pudo crear uno: " + created.statusCode() + " " + created.body());
+        }
+        return mapper.readTree(created.body()).get("id").asText();
+    }
+
+    private static long rssKb(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.isReadable(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("\\D+", ""));
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String out = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return out.isEmpty() ? -1 : Long.parseLong(out);
+    }
+
+    private static Map<String, Object> summary(List<Map<String, Object>> samples) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("firstResponseMillis", stats(samples, "firstResponseMillis"));
+        out.put("rssMb", stats(samples, "rssMb"));
+        out.put("runs", samples);
+        return out;
+    }
+
+    private static Map<String, Double> stats(List<Map<String, Object>> samples, String key) {
+        double[] values = samples.stream().mapToDouble(s -> ((Number) s.get(key)).doubleValue()).sorted().toArray();
+        Map<String, Double> out = new LinkedHashMap<>();
+        out.put("min", values[0]);
+        out.put("median", values[values.length / 2]);
+        out.put("max", values[values.length - 1]);
+        return out;
+    }
+
+    private void report(Map<String, Object> results, String id, File out) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", opts);
+        report.put("customerId", id);
+        report.put("java", System.getProperty("java.version"));
+        report.put("variants", results);
+        out.getParentFile().mkdirs();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+        System.out.println("reporte: " + out.getAbsolutePath());
+    }
+}